@@ -0,0 +1,42 @@
+package com.hostfully.booking.api.benchmark;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.UUID;
+
+/**
+ * The services and repositories of the API without the web layer, on an in-memory H2 database of their own,
+ * configured like the application.yml of the controller module.
+ */
+@SpringBootApplication(scanBasePackages = "com.hostfully.booking.api")
+@EntityScan("com.hostfully.booking.api.entity")
+@EnableJpaRepositories("com.hostfully.booking.api.repository")
+public class BenchmarkApplication {
+
+    private static final String[] DEFAULTS = {
+            "spring.jpa.hibernate.ddl-auto=none",
+            "spring.jpa.open-in-view=false",
+            "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+            "spring.jpa.properties.hibernate.order_inserts=true",
+            "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=true",
+            "booking.availability.preload=false",
+            "logging.level.root=WARN"
+    };
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties(DEFAULTS)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.hostfully.booking.api.benchmark;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.entity.Guest;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.GuestResource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * A booking of three guests, as entity and as request, shared by the benchmarks without a database.
+ */
+final class BenchmarkFixtures {
+
+    static final int GUESTS = 3;
+
+    private BenchmarkFixtures() {
+    }
+
+    static Booking booking() {
+        var property = new Property();
+        property.setId(1L);
+        property.setUuid(OverlapValidationBenchmark.PROPERTY_UUID);
+        property.setName("Property 01");
+        property.setDescription("This is a simple example of description of the first property");
+
+        var booking = new Booking();
+        booking.setId(1L);
+        booking.setUuid(UUID.fromString("55a6b2ea-7d44-40d3-8eb1-8967110d3df8"));
+        booking.setProperty(property);
+        booking.setStatus(BookingStatus.BOOKED);
+        booking.setBeginAt(LocalDate.of(2030, 1, 10));
+        booking.setEndAt(LocalDate.of(2030, 1, 20));
+        booking.setVersion(3L);
+        booking.setGuests(IntStream.range(0, GUESTS)
+                .mapToObj(BenchmarkFixtures::guest)
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll));
+        return booking;
+    }
+
+    static BookingRequestResource request() {
+        var request = new BookingRequestResource();
+        request.setPropertyId(OverlapValidationBenchmark.PROPERTY_UUID.toString());
+        request.setBeginAt(LocalDate.of(2030, 1, 10));
+        request.setEndAt(LocalDate.of(2030, 1, 20));
+        request.setGuests(IntStream.range(0, GUESTS)
+                .mapToObj(i -> {
+                    var guest = new GuestResource();
+                    guest.setName("Guest " + i);
+                    guest.setAge(30 + i);
+                    guest.setEmail("guest" + i + "@example.com");
+                    guest.setDocumentType(DocumentType.PASSPORT.name());
+                    guest.setDocumentNumber("XX00000000" + i);
+                    return guest;
+                })
+                .toList());
+        return request;
+    }
+
+    private static Guest guest(int i) {
+        var guest = new Guest();
+        guest.setId(100L + i);
+        guest.setUuid(UUID.nameUUIDFromBytes(("guest-" + i).getBytes()));
+        guest.setName("Guest " + i);
+        guest.setAge(30 + i);
+        guest.setEmail("guest" + i + "@example.com");
+        guest.setDocumentType(DocumentType.PASSPORT);
+        guest.setDocumentNumber("XX00000000" + i);
+        return guest;
+    }
+}
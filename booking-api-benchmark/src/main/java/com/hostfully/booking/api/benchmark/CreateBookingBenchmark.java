@@ -0,0 +1,97 @@
+package com.hostfully.booking.api.benchmark;
+
+import com.hostfully.booking.api.benchmark.dataset.DatasetGenerator;
+import com.hostfully.booking.api.benchmark.dataset.DatasetSpec;
+import com.hostfully.booking.api.exception.BusinessException;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.GuestResource;
+import com.hostfully.booking.api.service.BookingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * The whole BookingService.createBooking path: property cache, lock, overlap check, guest linking, insert of the
+ * booking and its guests, nights and events. Every call books the next free dates, with one guest seen before
+ * and one new guest, next to the bookings and guests of a seeded dataset of other properties. The NIGHTS mode
+ * checks nothing before the write and inserts the nights of the booking instead, so it is measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateBookingBenchmark {
+
+    @Param({"0", "1000"})
+    public int datasetProperties;
+
+    @Param({"INDEX", "QUERY", "NIGHTS"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private BookingService service;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, InterruptedException {
+        context = BenchmarkApplication.start("booking.availability.mode=" + mode);
+        service = context.getBean(BookingService.class);
+        if (datasetProperties > 0) {
+            var spec = DatasetSpec.parse(Map.of(
+                    "properties", String.valueOf(datasetProperties),
+                    "nights", String.valueOf(mode.equals("NIGHTS"))));
+            new DatasetGenerator(context.getBean(DataSource.class), spec).load();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingResponseResource createBooking() throws BusinessException {
+        var begin = OverlapValidationBenchmark.FIRST_DAY.plusDays(next * 3);
+        var request = new BookingRequestResource();
+        request.setPropertyId(OverlapValidationBenchmark.PROPERTY_UUID.toString());
+        request.setBeginAt(begin);
+        request.setEndAt(begin.plusDays(1));
+        request.setGuests(List.of(
+                guest("Returning Guest", "returning@guest.com", "RETURNING"),
+                guest("New Guest " + next, "new" + next + "@guest.com", null)));
+        next++;
+        return service.createBooking(request);
+    }
+
+    private static GuestResource guest(String name, String email, String passport) {
+        var guest = new GuestResource();
+        guest.setName(name);
+        guest.setAge(35);
+        guest.setEmail(email);
+        if (passport != null) {
+            guest.setDocumentType("PASSPORT");
+            guest.setDocumentNumber(passport);
+        }
+        return guest;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hostfully.booking.api.benchmark;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.mapper.BookingMapperImpl;
+import com.hostfully.booking.api.mapper.GuestMapperImpl;
+import com.hostfully.booking.api.mapper.PropertyMapperImpl;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to resource mapping, and back, with the generated MapStruct mappers of the application and with the
+ * reflective ModelMapper configured as it was before them. Run with -prof gc for the allocations per mapping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private BookingMapper mapStruct;
+    private ModelMapper modelMapper;
+    private Booking booking;
+    private BookingRequestResource request;
+
+    @Setup
+    public void setUp() {
+        mapStruct = new BookingMapperImpl(new PropertyMapperImpl(), new GuestMapperImpl());
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        modelMapper.getConfiguration().setSkipNullEnabled(true);
+        booking = BenchmarkFixtures.booking();
+        request = BenchmarkFixtures.request();
+    }
+
+    @Benchmark
+    public BookingResponseResource mapStructToResource() {
+        return mapStruct.toResource(booking);
+    }
+
+    @Benchmark
+    public BookingResponseResource modelMapperToResource() {
+        return modelMapper.map(booking, BookingResponseResource.class);
+    }
+
+    @Benchmark
+    public Booking mapStructToEntity() {
+        return mapStruct.toEntity(request);
+    }
+
+    @Benchmark
+    public Booking modelMapperToEntity() {
+        return modelMapper.map(request, Booking.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hostfully.booking.api.benchmark;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.exception.BusinessException;
+import com.hostfully.booking.api.helper.BookingHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * BookingHelper.validateOverlappedDates for a free range of a property already holding the given number of
+ * bookings, answered by the in-memory index or by the overlap query. The NIGHTS mode validates nothing before
+ * the write, so it is compared in CreateBookingBenchmark instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapValidationBenchmark {
+
+    static final long PROPERTY_ID = 1L;
+    static final UUID PROPERTY_UUID = UUID.fromString("c0f926fa-5d63-4d33-8476-74ce938d6bff");
+    static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    /** Each booking takes two nights and leaves the third one free */
+    private static final int DAYS_PER_BOOKING = 3;
+    private static final int SEED_BATCH = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    public int bookings;
+
+    @Param({"INDEX", "QUERY"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private BookingHelper helper;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("booking.availability.mode=" + mode);
+        seed(context.getBean(JdbcTemplate.class), bookings);
+        helper = context.getBean(BookingHelper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int validateFreeRange() throws BusinessException {
+        // Walks the free nights between the bookings, so the index and the query never see the same range twice in a row
+        next = (next + 7919) % bookings;
+        var free = FIRST_DAY.plusDays((long) next * DAYS_PER_BOOKING + 2);
+        helper.validateOverlappedDates(0L, PROPERTY_UUID, free, free);
+        return next;
+    }
+
+    static void seed(JdbcTemplate jdbc, int count) {
+        for (int from = 0; from < count; from += SEED_BATCH) {
+            var first = from;
+            var size = Math.min(SEED_BATCH, count - from);
+            jdbc.batchUpdate("INSERT INTO BOOKING (ID_BOOKING, UUID_BOOKING, ID_PROPERTY, ST_BOOKING, DT_START, DT_END) " +
+                            "VALUES (?, ?, ?, ?, ?, ?)",
+                    IntStream.range(first, first + size)
+                            .mapToObj(i -> new Object[]{
+                                    1_000_000L + i, UUID.randomUUID(), PROPERTY_ID, BookingStatus.BOOKED.ordinal(),
+                                    Date.valueOf(FIRST_DAY.plusDays((long) i * DAYS_PER_BOOKING)),
+                                    Date.valueOf(FIRST_DAY.plusDays((long) i * DAYS_PER_BOOKING + 1))})
+                            .toList());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.hostfully.booking.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hostfully.booking.api.mapper.BookingMapperImpl;
+import com.hostfully.booking.api.mapper.GuestMapperImpl;
+import com.hostfully.booking.api.mapper.PropertyMapperImpl;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding and decoding of the booking resources in each negotiated format, with the mappers built like
+ * the ones of the response cache. The bytes counter divided by the operations gives the encoded size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public ResponseFormat format;
+
+    private ObjectWriter responseWriter;
+    private ObjectReader responseReader;
+    private ObjectWriter requestWriter;
+    private ObjectReader requestReader;
+    private BookingResponseResource response;
+    private BookingRequestResource request;
+    private byte[] encodedResponse;
+    private byte[] encodedRequest;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Encoded {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        var mapper = Jackson2ObjectMapperBuilder.json().factory(format.newFactory()).build();
+        responseWriter = mapper.writerFor(BookingResponseResource.class);
+        responseReader = mapper.readerFor(BookingResponseResource.class);
+        requestWriter = mapper.writerFor(BookingRequestResource.class);
+        requestReader = mapper.readerFor(BookingRequestResource.class);
+
+        response = new BookingMapperImpl(new PropertyMapperImpl(), new GuestMapperImpl()).toResource(BenchmarkFixtures.booking());
+        request = BenchmarkFixtures.request();
+        encodedResponse = responseWriter.writeValueAsBytes(response);
+        encodedRequest = requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public byte[] writeResponse(Encoded encoded) throws IOException {
+        var bytes = responseWriter.writeValueAsBytes(response);
+        encoded.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public BookingResponseResource readResponse() throws IOException {
+        return responseReader.readValue(encodedResponse);
+    }
+
+    @Benchmark
+    public byte[] writeRequest(Encoded encoded) throws IOException {
+        var bytes = requestWriter.writeValueAsBytes(request);
+        encoded.bytes += bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public BookingRequestResource readRequest() throws IOException {
+        return requestReader.readValue(encodedRequest);
+    }
+}
@@ -0,0 +1,386 @@
+package com.hostfully.booking.api.benchmark.dataset;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.entity.Guest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+
+/**
+ * Bulk loads a synthetic dataset into the tables of schema.sql through plain JDBC batches, one connection per
+ * thread. Each property draws its calendar and guests from a random generator seeded by the spec seed and the
+ * index of the property, so the rows do not depend on the number of threads or on the order they run.
+ * <p>
+ * Occupying ranges of a property never overlap, canceled bookings may. Ids are the id of the property times
+ * {@link #ID_STRIDE} plus a counter, so threads never compete for them, and the sequences are moved past the
+ * loaded ids at the end, for the application to keep inserting.
+ */
+public class DatasetGenerator {
+
+    static final long ID_STRIDE = 1_000_000L;
+
+    private static final int PEAK_DAY_OF_YEAR = 196;
+    private static final int MAX_NIGHTS = 28;
+    private static final double DOCUMENTED_SHARE = 0.8;
+
+    private static final String[] FIRST_NAMES = {
+            "Ana", "Bruno", "Carla", "Daniel", "Elena", "Felipe", "Gabriela", "Hugo", "Isabel", "João", "Karen",
+            "Lucas", "Marina", "Nicolas", "Olivia", "Pedro", "Quentin", "Rafaela", "Samuel", "Tânia", "Ulisses",
+            "Valéria", "William", "Xavier", "Yasmin", "Zoë"
+    };
+    private static final String[] LAST_NAMES = {
+            "Almeida", "Barbosa", "Costa", "Dias", "Evans", "Ferreira", "Garcia", "Hoffmann", "Ito", "Jensen",
+            "Kowalski", "Lima", "Müller", "Nakamura", "Oliveira", "Pereira", "Quintana", "Rocha", "Santos", "Taylor",
+            "Urbano", "Vieira", "Wagner", "Xu", "Yamada", "Zimmermann"
+    };
+
+    private final DataSource dataSource;
+    private final DatasetSpec spec;
+
+    public DatasetGenerator(DataSource dataSource, DatasetSpec spec) {
+        this.dataSource = dataSource;
+        this.spec = spec;
+    }
+
+    /**
+     * Loads into a JDBC URL, optionally creating the schema first, e.g.
+     * {@code url=jdbc:h2:file:./target/dataset/bookings createSchema=true properties=100000 seed=7}.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = Arrays.stream(args)
+                .map(argument -> argument.split("=", 2))
+                .collect(Collectors.toMap(pair -> pair[0], pair -> pair.length > 1 ? pair[1] : "true"));
+        var dataSource = new DriverManagerDataSource(
+                arguments.getOrDefault("url", "jdbc:h2:file:./target/dataset/bookings"),
+                arguments.getOrDefault("user", "admin"),
+                arguments.getOrDefault("password", "pass"));
+        if (Boolean.parseBoolean(arguments.getOrDefault("createSchema", "false"))) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                    .execute(dataSource);
+        }
+
+        System.out.println(new DatasetGenerator(dataSource, DatasetSpec.parse(arguments)).load());
+    }
+
+    public DatasetSummary load() throws SQLException, InterruptedException {
+        var started = System.nanoTime();
+        var firstPropertyId = maxId("PROPERTY", "ID_PROPERTY") + 1;
+
+        var executor = Executors.newFixedThreadPool(spec.threads());
+        try {
+            var shards = new ArrayList<Future<Counts>>();
+            for (int shard = 0; shard < spec.threads(); shard++) {
+                var from = (int) ((long) spec.properties() * shard / spec.threads());
+                var to = (int) ((long) spec.properties() * (shard + 1) / spec.threads());
+                shards.add(executor.submit(() -> loadShard(firstPropertyId, from, to)));
+            }
+
+            var total = new Counts();
+            for (var shard : shards) {
+                total.add(shard.get());
+            }
+            restartSequence("SEQ_PROPERTY", "PROPERTY", "ID_PROPERTY", 1);
+            restartSequence("SEQ_BOOKING", "BOOKING", "ID_BOOKING", 50);
+            restartSequence("SEQ_GUEST", "GUEST", "ID_GUEST", 50);
+            return new DatasetSummary(total.properties, total.bookings, total.guests, total.bookingGuests,
+                    total.nights, Duration.ofNanos(System.nanoTime() - started));
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Counts loadShard(long firstPropertyId, int from, int to) throws SQLException {
+        try (var writer = new RowWriter(dataSource.getConnection(), spec)) {
+            for (int index = from; index < to; index++) {
+                generateProperty(index, firstPropertyId + index, writer);
+            }
+            writer.flush();
+            return writer.counts;
+        }
+    }
+
+    private void generateProperty(int index, long propertyId, RowWriter writer) throws SQLException {
+        var random = new SplittableRandom(spec.seed() * 0x9E3779B97F4A7C15L + index);
+        writer.property(propertyId, uuid(random), "Property " + (index + 1),
+                "Synthetic property " + (index + 1) + " of a dataset seeded with " + spec.seed());
+
+        var returningGuests = new ArrayList<Long>();
+        var nextBookingId = propertyId * ID_STRIDE;
+        var nextGuestId = propertyId * ID_STRIDE;
+        var last = spec.firstDay().plusDays(spec.days() - 1L);
+        var day = spec.firstDay();
+        while (!day.isAfter(last)) {
+            if (random.nextDouble() >= startProbability(day)) {
+                day = day.plusDays(1);
+                continue;
+            }
+
+            var end = min(day.plusDays(nights(random) - 1L), last);
+            var status = status(random);
+            var bookingId = nextBookingId++;
+            writer.booking(bookingId, uuid(random), propertyId, status, day, end);
+
+            if (status != BookingStatus.BLOCKED) {
+                var guests = spec.minGuests() + random.nextInt(spec.maxGuests() - spec.minGuests() + 1);
+                var linked = new ArrayList<Long>(guests);
+                for (int i = 0; i < guests; i++) {
+                    var guestId = returningGuests.isEmpty() || random.nextDouble() >= spec.returningShare()
+                            ? null : returningGuests.get(random.nextInt(returningGuests.size()));
+                    if (guestId == null || linked.contains(guestId)) {
+                        guestId = nextGuestId++;
+                        writeGuest(random, guestId, writer);
+                        returningGuests.add(guestId);
+                    }
+                    linked.add(guestId);
+                    writer.bookingGuest(bookingId, guestId);
+                }
+            }
+            if (spec.nights() && status != BookingStatus.CANCELED) {
+                for (var night = day; !night.isAfter(end); night = night.plusDays(1)) {
+                    writer.night(propertyId, night, bookingId);
+                }
+            }
+            writer.flushIfFull();
+
+            // Canceled bookings release their nights, the next range may start on the same dates
+            day = status == BookingStatus.CANCELED ? day.plusDays(1) : end.plusDays(1);
+        }
+        if (nextBookingId - propertyId * ID_STRIDE >= ID_STRIDE || nextGuestId - propertyId * ID_STRIDE >= ID_STRIDE) {
+            throw new IllegalStateException("A property must not have more than " + ID_STRIDE + " bookings or guests");
+        }
+    }
+
+    private void writeGuest(SplittableRandom random, long guestId, RowWriter writer) throws SQLException {
+        var first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        var last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        var name = first + " " + last;
+        var email = Guest.normalize(first + "." + last) + "." + guestId + "@example.com";
+        DocumentType documentType = null;
+        String documentNumber = null;
+        if (random.nextDouble() < DOCUMENTED_SHARE) {
+            documentType = random.nextBoolean() ? DocumentType.PASSPORT : DocumentType.NATIONAL_ID;
+            documentNumber = (documentType == DocumentType.PASSPORT ? "P" : "N") + guestId;
+        }
+        writer.guest(guestId, uuid(random), name, 1 + random.nextInt(85), email, documentType, documentNumber);
+    }
+
+    /**
+     * Chance of a stay starting on a free day, so that the share of occupied nights meets the seasonal occupancy:
+     * with stays of L nights, free gaps of 1/p - 1 days give an occupancy of L / (L + 1/p - 1).
+     */
+    double startProbability(LocalDate day) {
+        var season = Math.cos(2 * Math.PI * (day.getDayOfYear() - PEAK_DAY_OF_YEAR) / 365.25);
+        var occupancy = Math.min(1, spec.occupancy() * (1 + spec.seasonality() * season));
+        if (occupancy <= 0) {
+            return 0;
+        }
+        return 1 / (spec.meanNights() * (1 / occupancy - 1) + 1);
+    }
+
+    /**
+     * Geometric length of stay with the mean of the spec, capped at four weeks.
+     */
+    private int nights(SplittableRandom random) {
+        if (spec.meanNights() <= 1) {
+            return 1;
+        }
+        var nights = 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / spec.meanNights()));
+        return Math.min(nights, MAX_NIGHTS);
+    }
+
+    private BookingStatus status(SplittableRandom random) {
+        var draw = random.nextDouble();
+        if (draw < spec.blockedShare()) {
+            return BookingStatus.BLOCKED;
+        }
+        return draw < spec.blockedShare() + spec.canceledShare() ? BookingStatus.CANCELED : BookingStatus.BOOKED;
+    }
+
+    private static UUID uuid(SplittableRandom random) {
+        return new UUID((random.nextLong() & ~0xF000L) | 0x4000L,
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+    }
+
+    private static LocalDate min(LocalDate first, LocalDate second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private long maxId(String table, String column) throws SQLException {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement();
+             var result = statement.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    /**
+     * The pooled optimizer of Hibernate hands out the allocation size of ids up to each value of the sequence, so
+     * the sequence restarts a whole allocation after the loaded ids.
+     */
+    private void restartSequence(String sequence, String table, String column, int allocationSize) throws SQLException {
+        var next = maxId(table, column) + allocationSize;
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        }
+    }
+
+    static final class Counts {
+
+        long properties;
+        long bookings;
+        long guests;
+        long bookingGuests;
+        long nights;
+
+        void add(Counts other) {
+            properties += other.properties;
+            bookings += other.bookings;
+            guests += other.guests;
+            bookingGuests += other.bookingGuests;
+            nights += other.nights;
+        }
+    }
+
+    /**
+     * Pending batches of one connection. They are executed parent tables first, so foreign keys always find their
+     * rows, and committed together once any of them is full.
+     */
+    private static final class RowWriter implements AutoCloseable {
+
+        private final Connection connection;
+        private final int batchSize;
+        private final Counts counts = new Counts();
+        private final PreparedStatement properties;
+        private final PreparedStatement guests;
+        private final PreparedStatement bookings;
+        private final PreparedStatement bookingGuests;
+        private final PreparedStatement nights;
+        private final List<PreparedStatement> inOrder;
+        private final int[] pending = new int[5];
+
+        RowWriter(Connection connection, DatasetSpec spec) throws SQLException {
+            this.connection = connection;
+            this.batchSize = spec.batchSize();
+            connection.setAutoCommit(false);
+            properties = connection.prepareStatement(
+                    "INSERT INTO PROPERTY (ID_PROPERTY, UUID_PROPERTY, NAME_PROPERTY, DESC_PROPERTY) VALUES (?, ?, ?, ?)");
+            guests = connection.prepareStatement(
+                    "INSERT INTO GUEST (ID_GUEST, UUID_GUEST, NAME_GUEST, AGE_GUEST, EMAIL_GUEST, DOC_TYPE_GUEST, " +
+                            "DOC_NMB_GUEST, NAME_NORM_GUEST, EMAIL_NORM_GUEST) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            bookings = connection.prepareStatement(
+                    "INSERT INTO BOOKING (ID_BOOKING, UUID_BOOKING, ID_PROPERTY, ST_BOOKING, DT_START, DT_END, " +
+                            "VERSION_BOOKING) VALUES (?, ?, ?, ?, ?, ?, 0)");
+            bookingGuests = connection.prepareStatement("INSERT INTO BOOKING_GUEST (ID_BOOKING, ID_GUEST) VALUES (?, ?)");
+            nights = connection.prepareStatement("INSERT INTO BOOKING_NIGHT (ID_PROPERTY, NIGHT, ID_BOOKING) VALUES (?, ?, ?)");
+            inOrder = List.of(properties, guests, bookings, bookingGuests, nights);
+        }
+
+        void property(long id, UUID uuid, String name, String description) throws SQLException {
+            properties.setLong(1, id);
+            properties.setObject(2, uuid);
+            properties.setString(3, name);
+            properties.setString(4, description);
+            add(0, properties);
+            counts.properties++;
+        }
+
+        void guest(long id, UUID uuid, String name, int age, String email, DocumentType documentType,
+                   String documentNumber) throws SQLException {
+            guests.setLong(1, id);
+            guests.setObject(2, uuid);
+            guests.setString(3, name);
+            guests.setInt(4, age);
+            guests.setString(5, email);
+            // Enums are mapped by ordinal, like the entities do
+            guests.setObject(6, documentType == null ? null : String.valueOf(documentType.ordinal()));
+            guests.setString(7, documentNumber);
+            guests.setString(8, Guest.normalize(name));
+            guests.setString(9, Guest.normalize(email));
+            add(1, guests);
+            counts.guests++;
+        }
+
+        void booking(long id, UUID uuid, long propertyId, BookingStatus status, LocalDate beginAt, LocalDate endAt)
+                throws SQLException {
+            bookings.setLong(1, id);
+            bookings.setObject(2, uuid);
+            bookings.setLong(3, propertyId);
+            bookings.setString(4, String.valueOf(status.ordinal()));
+            bookings.setObject(5, beginAt);
+            bookings.setObject(6, endAt);
+            add(2, bookings);
+            counts.bookings++;
+        }
+
+        void bookingGuest(long bookingId, long guestId) throws SQLException {
+            bookingGuests.setLong(1, bookingId);
+            bookingGuests.setLong(2, guestId);
+            add(3, bookingGuests);
+            counts.bookingGuests++;
+        }
+
+        void night(long propertyId, LocalDate night, long bookingId) throws SQLException {
+            nights.setLong(1, propertyId);
+            nights.setObject(2, night);
+            nights.setLong(3, bookingId);
+            add(4, nights);
+            counts.nights++;
+        }
+
+        void flushIfFull() throws SQLException {
+            if (Arrays.stream(pending).anyMatch(size -> size >= batchSize)) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            for (int i = 0; i < inOrder.size(); i++) {
+                if (pending[i] > 0) {
+                    inOrder.get(i).executeBatch();
+                    pending[i] = 0;
+                }
+            }
+            connection.commit();
+        }
+
+        private void add(int table, PreparedStatement statement) throws SQLException {
+            statement.addBatch();
+            pending[table]++;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                for (var statement : inOrder) {
+                    statement.close();
+                }
+            } finally {
+                connection.close();
+            }
+        }
+    }
+}
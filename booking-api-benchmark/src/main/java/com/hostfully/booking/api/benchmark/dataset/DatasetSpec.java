@@ -0,0 +1,81 @@
+package com.hostfully.booking.api.benchmark.dataset;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shape of a synthetic dataset. The same spec, seed included, always produces the same rows, whatever the number
+ * of threads loading them.
+ *
+ * @param properties        number of properties to create
+ * @param firstDay          first day of the calendars
+ * @param days              length of the calendars, in days
+ * @param occupancy         average share of the nights that are booked or blocked, from 0 to 1
+ * @param seasonality       relative swing of the occupancy between the low season and the peak in July, from 0 to 1
+ * @param meanNights        average length of a stay
+ * @param canceledShare     share of the bookings that are canceled, which do not hold their nights
+ * @param blockedShare      share of the ranges that are blocks, without guests
+ * @param minGuests         fewest guests of a booking
+ * @param maxGuests         most guests of a booking
+ * @param returningShare    share of the guests of a booking that already stayed at the same property
+ * @param nights            whether BOOKING_NIGHT is filled too, as the NIGHTS availability mode expects
+ * @param seed              seed of every random choice
+ * @param threads           connections loading properties in parallel
+ * @param batchSize         rows of each JDBC batch
+ */
+public record DatasetSpec(int properties, LocalDate firstDay, int days, double occupancy, double seasonality,
+                          double meanNights, double canceledShare, double blockedShare, int minGuests, int maxGuests,
+                          double returningShare, boolean nights, long seed, int threads, int batchSize) {
+
+    public DatasetSpec {
+        if (properties < 1 || days < 1) {
+            throw new IllegalArgumentException("The dataset must have at least one property and one day");
+        }
+        if (occupancy < 0 || occupancy > 1 || seasonality < 0 || seasonality > 1) {
+            throw new IllegalArgumentException("The occupancy and the seasonality must be between 0 and 1");
+        }
+        if (canceledShare < 0 || blockedShare < 0 || canceledShare + blockedShare > 1) {
+            throw new IllegalArgumentException("The canceled and blocked shares must not exceed 1 together");
+        }
+        if (minGuests < 1 || maxGuests < minGuests) {
+            throw new IllegalArgumentException("A booking must have at least one guest, and no more than the maximum");
+        }
+        if (meanNights < 1 || threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("The mean nights, the threads and the batch size must be at least 1");
+        }
+    }
+
+    /**
+     * Two years from 2026 at 70% occupancy, with four night stays of one to four guests. The first day is fixed,
+     * so the default dataset does not change from one day to the next.
+     */
+    public static DatasetSpec defaults(int properties) {
+        return new DatasetSpec(properties, LocalDate.of(2026, 1, 1), 730, 0.7, 0.3, 4, 0.1, 0.05, 1, 4, 0.2,
+                false, 42L, Runtime.getRuntime().availableProcessors(), 5000);
+    }
+
+    /**
+     * The defaults overridden by "name=value" arguments, named like the components of the record.
+     */
+    public static DatasetSpec parse(Map<String, String> arguments) {
+        var values = new HashMap<>(arguments);
+        var defaults = defaults(Integer.parseInt(values.getOrDefault("properties", "1000")));
+        return new DatasetSpec(
+                defaults.properties(),
+                LocalDate.parse(values.getOrDefault("firstDay", defaults.firstDay().toString())),
+                Integer.parseInt(values.getOrDefault("days", String.valueOf(defaults.days()))),
+                Double.parseDouble(values.getOrDefault("occupancy", String.valueOf(defaults.occupancy()))),
+                Double.parseDouble(values.getOrDefault("seasonality", String.valueOf(defaults.seasonality()))),
+                Double.parseDouble(values.getOrDefault("meanNights", String.valueOf(defaults.meanNights()))),
+                Double.parseDouble(values.getOrDefault("canceledShare", String.valueOf(defaults.canceledShare()))),
+                Double.parseDouble(values.getOrDefault("blockedShare", String.valueOf(defaults.blockedShare()))),
+                Integer.parseInt(values.getOrDefault("minGuests", String.valueOf(defaults.minGuests()))),
+                Integer.parseInt(values.getOrDefault("maxGuests", String.valueOf(defaults.maxGuests()))),
+                Double.parseDouble(values.getOrDefault("returningShare", String.valueOf(defaults.returningShare()))),
+                Boolean.parseBoolean(values.getOrDefault("nights", String.valueOf(defaults.nights()))),
+                Long.parseLong(values.getOrDefault("seed", String.valueOf(defaults.seed()))),
+                Integer.parseInt(values.getOrDefault("threads", String.valueOf(defaults.threads()))),
+                Integer.parseInt(values.getOrDefault("batchSize", String.valueOf(defaults.batchSize()))));
+    }
+}
@@ -0,0 +1,17 @@
+package com.hostfully.booking.api.benchmark.dataset;
+
+import java.time.Duration;
+
+public record DatasetSummary(long properties, long bookings, long guests, long bookingGuests, long nights,
+                             Duration elapsed) {
+
+    public long rows() {
+        return properties + bookings + guests + bookingGuests + nights;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d rows in %s (%,d properties, %,d bookings, %,d guests, %,d booking guests, %,d nights)",
+                rows(), elapsed, properties, bookings, guests, bookingGuests, nights);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hostfully.booking.api.benchmark.dataset;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetGeneratorTest {
+
+    private static final String BOOKINGS = "SELECT UUID_BOOKING, ID_PROPERTY, ST_BOOKING, DT_START, DT_END FROM BOOKING " +
+            "WHERE ID_PROPERTY > 5 ORDER BY ID_BOOKING";
+
+    @Test
+    void loadTest_SameSeedSameRows() throws Exception {
+        var spec = DatasetSpec.parse(Map.of("properties", "20", "days", "365", "seed", "7", "threads", "3",
+                "batchSize", "100"));
+        var first = load(spec);
+        var second = load(DatasetSpec.parse(Map.of("properties", "20", "days", "365", "seed", "7", "threads", "1")));
+        var reseeded = load(DatasetSpec.parse(Map.of("properties", "20", "days", "365", "seed", "8")));
+
+        assertEquals(first.queryForList(BOOKINGS), second.queryForList(BOOKINGS));
+        assertNotEquals(first.queryForList(BOOKINGS), reseeded.queryForList(BOOKINGS));
+    }
+
+    @Test
+    void loadTest_ConsistentWithSchema() throws Exception {
+        var jdbc = database();
+        var summary = new DatasetGenerator(jdbc.getDataSource(),
+                DatasetSpec.parse(Map.of("properties", "10", "nights", "true", "threads", "2"))).load();
+
+        assertEquals(10, summary.properties());
+        assertEquals(summary.bookings(), jdbc.queryForObject("SELECT COUNT(*) FROM BOOKING", Long.class));
+        assertEquals(summary.nights(), jdbc.queryForObject("SELECT COUNT(*) FROM BOOKING_NIGHT", Long.class));
+        // Occupying ranges never overlap, and only blocks are left without guests
+        var occupying = List.of(String.valueOf(BookingStatus.BOOKED.ordinal()), String.valueOf(BookingStatus.BLOCKED.ordinal()));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM BOOKING a JOIN BOOKING b " +
+                "ON a.ID_PROPERTY = b.ID_PROPERTY AND a.ID_BOOKING < b.ID_BOOKING " +
+                "AND a.DT_START <= b.DT_END AND b.DT_START <= a.DT_END " +
+                "WHERE a.ST_BOOKING IN (?, ?) AND b.ST_BOOKING IN (?, ?)", Long.class,
+                occupying.get(0), occupying.get(1), occupying.get(0), occupying.get(1)));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM BOOKING b WHERE b.ID_PROPERTY > 5 AND " +
+                "(b.ST_BOOKING = ?) = (EXISTS (SELECT 1 FROM BOOKING_GUEST bg WHERE bg.ID_BOOKING = b.ID_BOOKING))", Long.class,
+                String.valueOf(BookingStatus.BLOCKED.ordinal())));
+        // Nights belong to the occupying bookings, one row per night of each of them
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM BOOKING b WHERE b.ST_BOOKING IN (?, ?) " +
+                "AND DATEDIFF(DAY, b.DT_START, b.DT_END) + 1 <> " +
+                "(SELECT COUNT(*) FROM BOOKING_NIGHT n WHERE n.ID_BOOKING = b.ID_BOOKING)", Long.class,
+                occupying.get(0), occupying.get(1)));
+        // Guests come back to the same property
+        assertTrue(jdbc.queryForObject("SELECT COUNT(*) FROM GUEST", Long.class) < summary.bookingGuests());
+        // The sequences continue after the loaded ids, a whole allocation of the entities ahead
+        var maxBooking = jdbc.queryForObject("SELECT MAX(ID_BOOKING) FROM BOOKING", Long.class);
+        assertTrue(jdbc.queryForObject("SELECT NEXT VALUE FOR SEQ_BOOKING", Long.class) - 50 >= maxBooking);
+    }
+
+    private static JdbcTemplate load(DatasetSpec spec) throws Exception {
+        var jdbc = database();
+        new DatasetGenerator(jdbc.getDataSource(), spec).load();
+        return jdbc;
+    }
+
+    private static JdbcTemplate database() {
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hostfully.booking.api.config;
+
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder propertyLockMetrics(PropertyLockManager lockManager) {
+        return registry -> {
+            FunctionCounter.builder("booking.property.lock.acquisitions", lockManager, manager -> manager.statistics().acquisitions())
+                    .description("Property locks acquired")
+                    .register(registry);
+            FunctionCounter.builder("booking.property.lock.contended", lockManager, manager -> manager.statistics().contended())
+                    .description("Property locks requested while held by another request")
+                    .register(registry);
+            FunctionCounter.builder("booking.property.lock.timeouts", lockManager, manager -> manager.statistics().timeouts())
+                    .description("Property locks not acquired before the timeout")
+                    .register(registry);
+            FunctionCounter.builder("booking.property.lock.wait", lockManager,
+                            manager -> TimeUnit.NANOSECONDS.toMillis(manager.statistics().totalWaitNanos()))
+                    .baseUnit("milliseconds")
+                    .description("Time spent waiting for property locks")
+                    .register(registry);
+            Gauge.builder("booking.property.lock.queued", lockManager, manager -> manager.statistics().queuedThreads())
+                    .description("Requests currently waiting for a property lock")
+                    .register(registry);
+        };
+    }
+}
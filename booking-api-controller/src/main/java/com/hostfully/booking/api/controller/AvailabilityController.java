@@ -0,0 +1,74 @@
+package com.hostfully.booking.api.controller;
+
+import com.hostfully.booking.api.availability.Granularity;
+import com.hostfully.booking.api.availability.OccupancyEncoding;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.resource.AvailabilityMatrixResource;
+import com.hostfully.booking.api.resource.AvailabilityResource;
+import com.hostfully.booking.api.resource.DateRangeResource;
+import com.hostfully.booking.api.service.AvailabilityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Availability API", description = "API to search the availability of the Properties")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/v1/availability")
+public class AvailabilityController {
+
+    private final AvailabilityService service;
+
+    @Operation(summary = "Retrieve all the Properties without any Booking or Block between the dates")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability successfully evaluated"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input")
+    })
+    @GetMapping
+    public ResponseEntity<AvailabilityResource> findAvailableProperties(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws ParameterValidationException {
+        return ResponseEntity.ok(service.findAvailableProperties(from, to));
+    }
+
+    @Operation(summary = "Retrieve the occupancy of the Properties day by day, or rolled up by week or month")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occupancy matrix successfully built"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
+    })
+    @GetMapping("/matrix")
+    public ResponseEntity<AvailabilityMatrixResource> findOccupancyMatrix(
+            @RequestParam(required = false) List<String> properties,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(defaultValue = "RLE") OccupancyEncoding encoding) throws ParameterValidationException {
+        return ResponseEntity.ok(service.findOccupancyMatrix(properties, from, to, granularity, encoding));
+    }
+
+    @Operation(summary = "Retrieve the first free window of N nights of a Property starting on or after a date")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Free window successfully found"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
+    })
+    @GetMapping("/next")
+    public ResponseEntity<DateRangeResource> findNextFreeWindow(
+            @RequestParam String propertyId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate after,
+            @RequestParam int nights) throws ParameterValidationException {
+        return ResponseEntity.ok(service.findNextFreeWindow(propertyId, after, nights));
+    }
+}
@@ -2,31 +2,47 @@ package com.hostfully.booking.api.controller;
 
 import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.resource.BatchResultResource;
 import com.hostfully.booking.api.resource.BookingRequestResource;
 import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
+import com.hostfully.booking.api.service.BookingBatchService;
+import com.hostfully.booking.api.service.BookingImportService;
 import com.hostfully.booking.api.service.BlockService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
 
 @Tag(name = "Blocks API", description = "API to manage the Blocks requests")
 @RestController
@@ -35,6 +51,8 @@ import java.net.URI;
 public class BlockController {
 
     private final BlockService service;
+    private final BookingBatchService batchService;
+    private final BookingImportService importService;
 
     @Operation(summary = "Create a new Block in the database")
     @ApiResponses(value = {
@@ -46,7 +64,31 @@ public class BlockController {
     @PostMapping
     public ResponseEntity<BookingResponseResource> createBlock(@Valid @RequestBody BookingRequestResource resource) throws BusinessException {
         var persisted = service.createBlock(resource);
-        return ResponseEntity.created(URI.create(getURI() + persisted.getUuid())).body(persisted);
+        return ResponseEntity.created(URI.create(getURI() + persisted.getUuid()))
+                .eTag(VersionTags.of(persisted.getVersion()))
+                .body(persisted);
+    }
+
+    @Operation(summary = "Create many Blocks at once, returning a result for every item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed. Each item carries its own status code"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. The batch is empty or too large")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultResource> createBlockBatch(
+            @RequestBody List<BookingRequestResource> requestResources) throws ParameterValidationException {
+        return ResponseEntity.ok(batchService.createBlocks(requestResources));
+    }
+
+    @Operation(summary = "Import Blocks from an NDJSON stream, one request per line, reporting progress and errors as NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed. Rejected lines are reported in the response stream")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importBlocks(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        importService.importBlocks(request.getInputStream(), response.getOutputStream());
     }
 
     @Operation(summary = "Update the dates of an existing Block")
@@ -54,13 +96,16 @@ public class BlockController {
             @ApiResponse(responseCode = "200", description = "Block successfully updated"),
             @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
             @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found"),
-            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met")
+            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed. The If-Match header does not match the current version")
     })
     @PutMapping("/{uuid}")
     public ResponseEntity<BookingResponseResource> updateBlock(
-            @PathVariable String uuid, @Valid @RequestBody BookingRequestResource requestResource)
+            @PathVariable String uuid, @Valid @RequestBody BookingRequestResource requestResource,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
             throws ParameterValidationException, BusinessException {
-        return ResponseEntity.ok(service.updateBlock(uuid, requestResource));
+        var updated = service.updateBlock(uuid, requestResource, VersionTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(updated.getVersion())).body(updated);
     }
 
     @Operation(summary = "Delete permanently an existing Block from the Database")
@@ -77,14 +122,49 @@ public class BlockController {
     }
 
     @Operation(summary = "Retrieve a Block using its UUID as parameter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Block successfully found",
+                    content = @Content(schema = @Schema(implementation = BookingResponseResource.class))),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The Block matches the If-None-Match header"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found"),
+            @ApiResponse(responseCode = "406", description = "Not Acceptable. None of JSON, CBOR or Smile is accepted")
+    })
+    @GetMapping("/{uuid}")
+    public ResponseEntity<byte[]> getByUUID(
+            @PathVariable String uuid, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) throws ParameterValidationException, HttpMediaTypeNotAcceptableException {
+        var format = ResponseFormat.negotiate(accept)
+                .orElseThrow(() -> new HttpMediaTypeNotAcceptableException(
+                        Arrays.stream(ResponseFormat.values()).map(ResponseFormat::getMediaType).toList()));
+        var block = service.findSerializedByUUID(uuid, format);
+        var eTag = VersionTags.of(block.version(), format);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(eTag)
+                .body(block.body());
+    }
+
+    @Operation(summary = "Retrieve only the requested fields of a Block using its UUID as parameter")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Block successfully found"),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The Block matches the If-None-Match header"),
             @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
             @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
     })
-    @GetMapping("/{uuid}")
-    public ResponseEntity<BookingResponseResource> getByUUID(@PathVariable String uuid) throws ParameterValidationException {
-        return ResponseEntity.ok(service.findByUUID(uuid));
+    @GetMapping(value = "/{uuid}", params = "fields")
+    public ResponseEntity<BookingResponseResource> getFieldsByUUID(
+            @PathVariable String uuid, @RequestParam String fields, WebRequest request) throws ParameterValidationException {
+        var block = service.findByUUID(uuid, fields);
+        var eTag = VersionTags.weak(block.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).eTag(eTag).body(block);
     }
 
     private String getURI() {
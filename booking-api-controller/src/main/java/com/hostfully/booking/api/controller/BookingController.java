@@ -2,31 +2,54 @@ package com.hostfully.booking.api.controller;
 
 import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.resource.BatchResultResource;
+import com.hostfully.booking.api.resource.BookingPageResource;
 import com.hostfully.booking.api.resource.BookingRequestResource;
 import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.LookupResultResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
+import com.hostfully.booking.api.service.BookingBatchService;
+import com.hostfully.booking.api.service.BookingExportService;
+import com.hostfully.booking.api.service.BookingImportService;
+import com.hostfully.booking.api.service.BookingLookupService;
+import com.hostfully.booking.api.service.BookingSearchService;
 import com.hostfully.booking.api.service.BookingService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 
 @Tag(name = "Bookings API", description = "API to manage the Bookings requests")
 @RestController
@@ -35,6 +58,11 @@ import java.net.URI;
 public class BookingController {
 
     private final BookingService service;
+    private final BookingBatchService batchService;
+    private final BookingImportService importService;
+    private final BookingExportService exportService;
+    private final BookingSearchService searchService;
+    private final BookingLookupService lookupService;
 
     @Operation(summary = "Create a new Booking in the database")
     @ApiResponses(value = {
@@ -47,7 +75,59 @@ public class BookingController {
     public ResponseEntity<BookingResponseResource> createBooking(
             @Valid @RequestBody BookingRequestResource requestResource) throws BusinessException {
         var persisted = service.createBooking(requestResource);
-        return ResponseEntity.created(URI.create(getURI() + persisted.getUuid())).body(persisted);
+        return ResponseEntity.created(URI.create(getURI() + persisted.getUuid()))
+                .eTag(VersionTags.of(persisted.getVersion()))
+                .body(persisted);
+    }
+
+    @Operation(summary = "Create many Bookings at once, returning a result for every item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed. Each item carries its own status code"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. The batch is empty or too large")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultResource> createBookingBatch(
+            @RequestBody List<BookingRequestResource> requestResources) throws ParameterValidationException {
+        return ResponseEntity.ok(batchService.createBookings(requestResources));
+    }
+
+    @Operation(summary = "Retrieve many Bookings by their UUIDs, returning a result for every UUID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup processed. Each item carries its own status code"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. The lookup is empty or too large")
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<LookupResultResource> lookupBookings(@RequestBody List<String> uuids) throws ParameterValidationException {
+        return ResponseEntity.ok(lookupService.findByUUIDs(uuids));
+    }
+
+    @Operation(summary = "Import Bookings from an NDJSON stream, one request per line, reporting progress and errors as NDJSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed. Rejected lines are reported in the response stream")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importBookings(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        importService.importBookings(request.getInputStream(), response.getOutputStream());
+    }
+
+    @Operation(summary = "Export the Bookings of a Property as an NDJSON stream, one Booking per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bookings streamed ordered by the initial date"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
+    })
+    @GetMapping("/export")
+    public void exportBookings(
+            @RequestParam String propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws ParameterValidationException, IOException {
+        var criteria = exportService.prepareExport(propertyId, from, to);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        exportService.exportBookings(criteria, response.getOutputStream());
     }
 
     @Operation(summary = "Update the dates or the Guest list of an existing Booking")
@@ -55,13 +135,16 @@ public class BookingController {
             @ApiResponse(responseCode = "200", description = "Booking successfully updated"),
             @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
             @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found"),
-            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met")
+            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed. The If-Match header does not match the current version")
     })
     @PutMapping("/{uuid}")
     public ResponseEntity<BookingResponseResource> updateBooking(
-            @PathVariable String uuid, @Valid @RequestBody BookingRequestResource requestResource)
+            @PathVariable String uuid, @Valid @RequestBody BookingRequestResource requestResource,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
             throws ParameterValidationException, BusinessException {
-        return ResponseEntity.ok(service.updateBooking(uuid, requestResource));
+        var updated = service.updateBooking(uuid, requestResource, VersionTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(updated.getVersion())).body(updated);
     }
 
     @Operation(summary = "Move the status of a Booking from BOOKED to CANCELED")
@@ -69,12 +152,15 @@ public class BookingController {
             @ApiResponse(responseCode = "200", description = "Booking successfully canceled"),
             @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
             @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found"),
-            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met")
+            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed. The If-Match header does not match the current version")
     })
     @PutMapping("/cancel/{uuid}")
-    @ResponseStatus(HttpStatus.OK)
-    public void cancelBooking(@PathVariable String uuid) throws BusinessException, ParameterValidationException {
-        service.cancelBooking(uuid);
+    public ResponseEntity<Void> cancelBooking(
+            @PathVariable String uuid, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws BusinessException, ParameterValidationException {
+        var canceled = service.cancelBooking(uuid, VersionTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(canceled.getVersion())).build();
     }
 
     @Operation(summary = "Move the status of a Booking from CANCELED to BOOKED")
@@ -82,12 +168,15 @@ public class BookingController {
             @ApiResponse(responseCode = "200", description = "Booking successfully updated"),
             @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
             @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found"),
-            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met")
+            @ApiResponse(responseCode = "409", description = "Business Exception. Any business rule that was not met"),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed. The If-Match header does not match the current version")
     })
     @PutMapping("/rebook/{uuid}")
-    @ResponseStatus(HttpStatus.OK)
-    public void rebookBooking(@PathVariable String uuid) throws BusinessException, ParameterValidationException {
-        service.rebookBooking(uuid);
+    public ResponseEntity<Void> rebookBooking(
+            @PathVariable String uuid, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws BusinessException, ParameterValidationException {
+        var rebooked = service.rebookBooking(uuid, VersionTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(VersionTags.of(rebooked.getVersion())).build();
     }
 
     @Operation(summary = "Delete permanently an existing Booking from the Database")
@@ -103,15 +192,68 @@ public class BookingController {
         service.deleteBooking(uuid);
     }
 
+    @Operation(summary = "List the Bookings ordered by the initial date, page by page using the cursor of the previous page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page successfully retrieved"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
+    })
+    @GetMapping
+    public ResponseEntity<BookingPageResource> findBookings(
+            @RequestParam(required = false) String propertyId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) throws ParameterValidationException {
+        return ResponseEntity.ok(searchService.findBookings(propertyId, from, to, status, cursor, limit, fields));
+    }
+
     @Operation(summary = "Retrieve a Booking using its UUID as parameter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking successfully found",
+                    content = @Content(schema = @Schema(implementation = BookingResponseResource.class))),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The Booking matches the If-None-Match header"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found"),
+            @ApiResponse(responseCode = "406", description = "Not Acceptable. None of JSON, CBOR or Smile is accepted")
+    })
+    @GetMapping("/{uuid}")
+    public ResponseEntity<byte[]> getByUUID(
+            @PathVariable String uuid, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) throws ParameterValidationException, HttpMediaTypeNotAcceptableException {
+        var format = ResponseFormat.negotiate(accept)
+                .orElseThrow(() -> new HttpMediaTypeNotAcceptableException(
+                        Arrays.stream(ResponseFormat.values()).map(ResponseFormat::getMediaType).toList()));
+        var booking = service.findSerializedByUUID(uuid, format);
+        var eTag = VersionTags.of(booking.version(), format);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(eTag)
+                .body(booking.body());
+    }
+
+    @Operation(summary = "Retrieve only the requested fields of a Booking using its UUID as parameter")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Booking successfully found"),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The Booking matches the If-None-Match header"),
             @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
             @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
     })
-    @GetMapping("/{uuid}")
-    public ResponseEntity<BookingResponseResource> getByUUID(@PathVariable String uuid) throws ParameterValidationException {
-        return ResponseEntity.ok(service.findByUUID(uuid));
+    @GetMapping(value = "/{uuid}", params = "fields")
+    public ResponseEntity<BookingResponseResource> getFieldsByUUID(
+            @PathVariable String uuid, @RequestParam String fields, WebRequest request) throws ParameterValidationException {
+        var booking = service.findByUUID(uuid, fields);
+        var eTag = VersionTags.weak(booking.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).eTag(eTag).body(booking);
     }
 
     private String getURI() {
@@ -0,0 +1,38 @@
+package com.hostfully.booking.api.controller;
+
+import com.hostfully.booking.api.resource.PropertyPageResource;
+import com.hostfully.booking.api.resource.PropertyResource;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strong entity tags hashed from the fields of resources without a version column.
+ */
+final class ContentTags {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private ContentTags() {
+    }
+
+    static String of(PropertyResource property) {
+        return tag(append(new StringBuilder(), property));
+    }
+
+    static String of(PropertyPageResource page) {
+        var content = new StringBuilder();
+        page.getItems().forEach(property -> append(content, property));
+        return tag(content.append(page.getNextCursor()));
+    }
+
+    private static StringBuilder append(StringBuilder content, PropertyResource property) {
+        return content.append(property.getUuid()).append(SEPARATOR)
+                .append(property.getName()).append(SEPARATOR)
+                .append(property.getDescription()).append(SEPARATOR);
+    }
+
+    private static String tag(StringBuilder content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,39 @@
+package com.hostfully.booking.api.controller;
+
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.resource.GuestPageResource;
+import com.hostfully.booking.api.service.GuestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Guests API", description = "API to search the Guests shared by the Bookings")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/v1/guest")
+public class GuestController {
+
+    private final GuestService service;
+
+    @Operation(summary = "Search the Guests by document, by email or by the beginning of the name, page by page using the cursor of the previous page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page successfully retrieved"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input")
+    })
+    @GetMapping
+    public GuestPageResource searchGuests(
+            @RequestParam(required = false) String documentType,
+            @RequestParam(required = false) String documentNumber,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) throws ParameterValidationException {
+        return service.searchGuests(documentType, documentNumber, email, name, cursor, limit);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hostfully.booking.api.controller;
+
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.resource.PropertyPageResource;
+import com.hostfully.booking.api.resource.PropertyResource;
+import com.hostfully.booking.api.service.CalendarFeedService;
+import com.hostfully.booking.api.service.PropertyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Tag(name = "Properties API", description = "API to retrieve the Properties and their calendars")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "/api/v1/property")
+public class PropertyController {
+
+    private static final MediaType TEXT_CALENDAR = new MediaType("text", "calendar", StandardCharsets.UTF_8);
+
+    private static final CacheControl CATALOG_CACHE = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final PropertyService service;
+    private final CalendarFeedService calendarFeedService;
+
+    @Operation(summary = "List the Properties ordered by creation, page by page using the cursor of the previous page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page successfully retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The page matches the If-None-Match header"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input")
+    })
+    @GetMapping
+    public ResponseEntity<PropertyPageResource> findProperties(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) throws ParameterValidationException {
+        var page = service.findProperties(cursor, limit);
+        var eTag = ContentTags.of(page);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).eTag(eTag).body(page);
+    }
+
+    @Operation(summary = "Retrieve a Property using its UUID as parameter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Property successfully found"),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The Property matches the If-None-Match header"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
+    })
+    @GetMapping("/{uuid}")
+    public ResponseEntity<PropertyResource> getByUUID(@PathVariable String uuid, WebRequest request)
+            throws ParameterValidationException {
+        var property = service.findProperty(uuid);
+        var eTag = ContentTags.of(property);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CATALOG_CACHE).eTag(eTag).body(property);
+    }
+
+    @Operation(summary = "Retrieve the Bookings and Blocks of a Property as an iCalendar feed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendar successfully rendered"),
+            @ApiResponse(responseCode = "304", description = "Not Modified. The calendar matches the If-None-Match or If-Modified-Since headers"),
+            @ApiResponse(responseCode = "400", description = "Bad Request. Might have any problem with the input"),
+            @ApiResponse(responseCode = "404", description = "Not Found. Any object that was not found")
+    })
+    @GetMapping("/{uuid}/calendar.ics")
+    public ResponseEntity<byte[]> getCalendar(@PathVariable String uuid, WebRequest request) throws ParameterValidationException {
+        var feed = calendarFeedService.findFeed(uuid);
+        if (request.checkNotModified(feed.eTag(), feed.lastModified().toEpochMilli())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache())
+                .eTag(feed.eTag())
+                .lastModified(feed.lastModified())
+                .body(feed.content());
+    }
+}
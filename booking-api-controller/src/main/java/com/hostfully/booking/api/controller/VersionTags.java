@@ -0,0 +1,60 @@
+package com.hostfully.booking.api.controller;
+
+import com.hostfully.booking.api.exception.PreconditionFailedException;
+import com.hostfully.booking.api.resource.ResponseFormat;
+
+import java.util.Arrays;
+
+/**
+ * Entity tags built from the version column of BOOKING. Partial representations get weak tags, which still answer
+ * If-None-Match but can never satisfy the If-Match of a write. The binary formats carry their name after the
+ * version, as their bytes differ from the JSON ones, and any format of the current version satisfies If-Match.
+ */
+final class VersionTags {
+
+    private VersionTags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(Long version, ResponseFormat format) {
+        return format == ResponseFormat.JSON ? of(version) : "\"" + version + suffixOf(format) + "\"";
+    }
+
+    static String weak(Long version) {
+        return "W/" + of(version);
+    }
+
+    /**
+     * Reads the expected version of an If-Match header. Missing or "*" headers do not restrict the write, while weak
+     * or unknown tags can never match the current version.
+     */
+    static Long parseIfMatch(String ifMatch) throws PreconditionFailedException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        var tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            var opaque = tag.substring(1, tag.length() - 1);
+            var version = Arrays.stream(ResponseFormat.values())
+                    .map(VersionTags::suffixOf)
+                    .filter(suffix -> !suffix.isEmpty() && opaque.endsWith(suffix))
+                    .findFirst()
+                    .map(suffix -> opaque.substring(0, opaque.length() - suffix.length()))
+                    .orElse(opaque);
+            try {
+                return Long.valueOf(version);
+            } catch (NumberFormatException ex) {
+                // Falls through to the precondition failure
+            }
+        }
+        throw new PreconditionFailedException("The If-Match header does not match the current version of the Booking");
+    }
+
+    private static String suffixOf(ResponseFormat format) {
+        return format == ResponseFormat.JSON ? "" : "-" + format.name().toLowerCase();
+    }
+}
@@ -0,0 +1,16 @@
+package com.hostfully.booking.api.exception;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.hostfully.booking.api.resource.DateRangeResource;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ConflictExceptionResource(
+        int statusCode,
+        String statusName,
+        String message,
+        List<DateRangeResource> conflicts,
+        DateRangeResource previousAvailable,
+        DateRangeResource nextAvailable
+) { }
@@ -1,8 +1,11 @@
 package com.hostfully.booking.api.exception;
 
+import com.hostfully.booking.api.availability.FreeWindow;
+import com.hostfully.booking.api.resource.DateRangeResource;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -46,4 +49,39 @@ public class CustomExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT)
                 .body(new BusinessExceptionResource(HttpStatus.CONFLICT.value(), HttpStatus.CONFLICT.getReasonPhrase(), ex.getMessage()));
     }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<BusinessExceptionResource> preconditionFailedException(PreconditionFailedException ex) {
+        return preconditionFailed(ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<BusinessExceptionResource> optimisticLockingFailureException(ObjectOptimisticLockingFailureException ex) {
+        return preconditionFailed(PreconditionFailedException.STALE_BOOKING);
+    }
+
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<ConflictExceptionResource> bookingConflictException(BookingConflictException ex) {
+        var conflict = ex.getConflict();
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ConflictExceptionResource(
+                        HttpStatus.CONFLICT.value(),
+                        HttpStatus.CONFLICT.getReasonPhrase(),
+                        ex.getMessage(),
+                        conflict.conflicts().stream()
+                                .map(range -> new DateRangeResource(range.beginAt(), range.endAt()))
+                                .toList(),
+                        toDateRange(conflict.previousWindow()),
+                        toDateRange(conflict.nextWindow())));
+    }
+
+    private static ResponseEntity<BusinessExceptionResource> preconditionFailed(String message) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(new BusinessExceptionResource(HttpStatus.PRECONDITION_FAILED.value(),
+                        HttpStatus.PRECONDITION_FAILED.getReasonPhrase(), message));
+    }
+
+    private static DateRangeResource toDateRange(FreeWindow window) {
+        return window == null ? null : new DateRangeResource(window.beginAt(), window.endAt());
+    }
 }
@@ -0,0 +1,118 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.resource.BatchResultResource;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.GuestResource;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_01;
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_02;
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_04;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "spring.datasource.url=jdbc:h2:mem:booking-writes"})
+@RunWith(SpringRunner.class)
+class BookingBatchIntegratedTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createBlockBatchTest_ResultPerItem() {
+        var begin = LocalDate.now().plusDays(100);
+        var requests = new ArrayList<BookingRequestResource>();
+        for (int i = 0; i < 120; i++) {
+            requests.add(request(PROPERTY_04, begin.plusDays(i * 2L), begin.plusDays(i * 2L + 1)));
+        }
+        requests.add(request(PROPERTY_04, begin.plusDays(1), begin.plusDays(2)));
+        requests.add(request("00000000-0000-0000-0000-000000000000", begin, begin));
+
+        var response = restTemplate.postForEntity("/api/v1/block/batch", requests, BatchResultResource.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(120, response.getBody().getCreatedCount());
+        assertEquals(2, response.getBody().getRejectedCount());
+        assertEquals(409, response.getBody().getResults().get(120).getStatusCode());
+        assertEquals(2, response.getBody().getResults().get(120).getConflicts().size());
+        assertEquals(404, response.getBody().getResults().get(121).getStatusCode());
+        assertEquals(120, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOKING WHERE ID_PROPERTY = 4", Integer.class));
+    }
+
+    @Test
+    void createBookingBatchTest_EmptyBatch_MustReturnBadRequest() {
+        var response = restTemplate.postForEntity("/api/v1/booking/batch", List.of(), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void importBlocksTest_HistoricalAndRejectedLines() {
+        var ndjson = String.join("\n",
+                "{\"propertyId\":\"" + PROPERTY_01 + "\",\"beginAt\":\"2020-01-01\",\"endAt\":\"2020-01-05\",\"guests\":[{\"name\":\"A\",\"age\":3}]}",
+                "{\"propertyId\":\"" + PROPERTY_01 + "\",\"beginAt\":\"2020-01-05\",\"endAt\":\"2020-01-06\",\"guests\":[{\"name\":\"A\",\"age\":3}]}",
+                "not json");
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        var response = restTemplate.postForEntity("/api/v1/block/import", new HttpEntity<>(ndjson, headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        var records = response.getBody().lines().toList();
+        assertEquals(4, records.size());
+        assertTrue(records.get(0).contains("\"line\":2,\"statusCode\":409"));
+        assertTrue(records.get(1).contains("\"line\":3,\"statusCode\":400"));
+        assertEquals("{\"type\":\"SUMMARY\",\"processed\":3,\"created\":1,\"rejected\":2}", records.get(3));
+    }
+
+    @Test
+    void exportBookingsTest_StreamsBookingsOfThePropertyInTheWindow() {
+        var begin = LocalDate.now().plusDays(10);
+        var second = request(PROPERTY_02, begin.plusDays(5), begin.plusDays(6));
+        var other = new GuestResource();
+        other.setName("Other");
+        other.setAge(40);
+        second.setGuests(List.of(second.getGuests().get(0), other));
+        restTemplate.postForEntity("/api/v1/booking/batch", List.of(
+                request(PROPERTY_02, begin, begin.plusDays(2)),
+                second,
+                request(PROPERTY_02, begin.plusDays(30), begin.plusDays(31))), BatchResultResource.class);
+
+        var response = restTemplate.getForEntity("/api/v1/booking/export?propertyId={propertyId}&to={to}",
+                String.class, PROPERTY_02, begin.plusDays(10));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        var records = response.getBody().lines().toList();
+        assertEquals(2, records.size());
+        assertTrue(records.get(0).contains("\"beginAt\":\"" + begin + "\""));
+        assertTrue(records.get(1).contains("\"guests\":[{\"name\":\"Guest\",\"age\":30},{\"name\":\"Other\",\"age\":40}]"));
+    }
+
+    @Test
+    void exportBookingsTest_InvalidParameters() {
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/v1/booking/export?propertyId={propertyId}&from=2030-01-02&to=2030-01-01",
+                String.class, PROPERTY_02).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.getForEntity("/api/v1/booking/export?propertyId=00000000-0000-0000-0000-000000000000",
+                String.class).getStatusCode());
+    }
+}
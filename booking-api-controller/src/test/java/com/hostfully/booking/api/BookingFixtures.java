@@ -0,0 +1,38 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.GuestResource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Properties of data.sql and booking requests shared by the integrated tests.
+ */
+final class BookingFixtures {
+
+    static final String PROPERTY_01 = "c0f926fa-5d63-4d33-8476-74ce938d6bff";
+    static final String PROPERTY_02 = "cb4b2cee-48da-4c8b-aac1-c15a6f24331c";
+    static final String PROPERTY_03 = "834a61e8-57f4-46e4-a324-41598247921d";
+    static final String PROPERTY_04 = "da26c68e-b6c6-47a7-a546-3f47621f0abc";
+    static final String PROPERTY_05 = "a50df57f-8554-4268-97c4-a0777f77317a";
+
+    private BookingFixtures() {
+    }
+
+    static BookingRequestResource request(String propertyId, LocalDate beginAt, LocalDate endAt) {
+        var guest = new GuestResource();
+        guest.setName("Guest");
+        guest.setAge(30);
+        return request(propertyId, beginAt, endAt, guest);
+    }
+
+    static BookingRequestResource request(String propertyId, LocalDate beginAt, LocalDate endAt, GuestResource... guests) {
+        var resource = new BookingRequestResource();
+        resource.setPropertyId(propertyId);
+        resource.setBeginAt(beginAt);
+        resource.setEndAt(endAt);
+        resource.setGuests(List.of(guests));
+        return resource;
+    }
+}
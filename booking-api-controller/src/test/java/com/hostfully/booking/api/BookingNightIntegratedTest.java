@@ -0,0 +1,87 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.exception.BookingConflictException;
+import com.hostfully.booking.api.service.BlockService;
+import com.hostfully.booking.api.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_04;
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_05;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "booking.availability.mode=NIGHTS",
+                "spring.datasource.url=jdbc:h2:mem:booking-nights"})
+@RunWith(SpringRunner.class)
+class BookingNightIntegratedTest {
+
+    @Autowired
+    private BlockService blockService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void createBlockTest_SharedNight_IsRejectedAndRolledBack() throws Exception {
+        var begin = LocalDate.now().plusDays(10);
+        var block = blockService.createBlock(request(PROPERTY_05, begin, begin.plusDays(4)));
+        assertEquals(5, countNights(5L));
+
+        var except = assertThrows(BookingConflictException.class,
+                () -> blockService.createBlock(request(PROPERTY_05, begin.plusDays(4), begin.plusDays(6))));
+        assertEquals(1, except.getConflict().conflicts().size());
+        assertEquals(5, countNights(5L));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOKING WHERE ID_PROPERTY = 5", Integer.class));
+
+        blockService.updateBlock(block.getUuid(), request(PROPERTY_05, begin.plusDays(20), begin.plusDays(21)));
+        var other = blockService.createBlock(request(PROPERTY_05, begin.plusDays(4), begin.plusDays(6)));
+        assertEquals(5, countNights(5L));
+
+        blockService.deleteBlock(block.getUuid());
+        blockService.deleteBlock(other.getUuid());
+        assertEquals(0, countNights(5L));
+    }
+
+    @Test
+    void cancelAndRebookTest_MaintainNights() throws Exception {
+        var begin = LocalDate.now().plusDays(10);
+        var booking = bookingService.createBooking(request(PROPERTY_04, begin, begin.plusDays(2)));
+        var uuid = booking.getUuid();
+        assertEquals(3, countNights(4L));
+
+        bookingService.cancelBooking(uuid);
+        assertEquals(0, countNights(4L));
+
+        var block = blockService.createBlock(request(PROPERTY_04, begin.plusDays(2), begin.plusDays(3)));
+        assertThrows(BookingConflictException.class, () -> bookingService.rebookBooking(uuid));
+        assertEquals(2, countNights(4L));
+
+        blockService.deleteBlock(block.getUuid());
+        bookingService.rebookBooking(uuid);
+        assertEquals(3, countNights(4L));
+
+        // The guests are read lazily, so the delete goes through the API where the session stays open
+        restTemplate.delete("/api/v1/booking/{uuid}", uuid);
+        assertEquals(0, countNights(4L));
+    }
+
+    private int countNights(Long propertyId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BOOKING_NIGHT WHERE ID_PROPERTY = ?", Integer.class, propertyId);
+    }
+}
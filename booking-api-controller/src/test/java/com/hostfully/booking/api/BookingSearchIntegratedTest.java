@@ -0,0 +1,120 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.resource.BatchResultResource;
+import com.hostfully.booking.api.resource.BookingPageResource;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.LookupResultResource;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_02;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "spring.datasource.url=jdbc:h2:mem:booking-writes"})
+@RunWith(SpringRunner.class)
+class BookingSearchIntegratedTest {
+
+    private static final String LIST_URL = "/api/v1/booking?propertyId={propertyId}&from={from}&to={to}&limit=2&cursor={cursor}";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void findBookingsTest_WalksEveryPageInOrder() {
+        var begin = LocalDate.now().plusDays(400);
+        var requests = new ArrayList<BookingRequestResource>();
+        for (int i = 4; i >= 0; i--) {
+            requests.add(request(PROPERTY_02, begin.plusDays(i * 3L), begin.plusDays(i * 3L + 1)));
+        }
+        var created = restTemplate.postForEntity("/api/v1/booking/batch", requests, BatchResultResource.class);
+        assertEquals(5, created.getBody().getCreatedCount());
+
+        var listed = new ArrayList<BookingResponseResource>();
+        String cursor = "";
+        var pages = 0;
+        do {
+            var page = restTemplate.getForEntity(LIST_URL, BookingPageResource.class, PROPERTY_02, begin, begin.plusDays(20), cursor);
+            assertEquals(HttpStatus.OK, page.getStatusCode());
+            listed.addAll(page.getBody().getItems());
+            cursor = page.getBody().getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, listed.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(begin.plusDays(i * 3L), listed.get(i).getBeginAt());
+            assertEquals(1, listed.get(i).getGuests().size());
+        }
+    }
+
+    @Test
+    void lookupBookingsTest_ResultPerUUID() {
+        var begin = LocalDate.now().plusDays(500);
+        var created = restTemplate.postForEntity("/api/v1/booking/batch",
+                List.of(request(PROPERTY_02, begin, begin), request(PROPERTY_02, begin.plusDays(2), begin.plusDays(2))), BatchResultResource.class);
+        var first = created.getBody().getResults().get(0).getBooking().getUuid();
+        var second = created.getBody().getResults().get(1).getBooking().getUuid();
+
+        var response = restTemplate.postForEntity("/api/v1/booking/lookup",
+                List.of(second, "00000000-0000-0000-0000-000000000000", "invalid", first), LookupResultResource.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().getFoundCount());
+        assertEquals(List.of(200, 404, 400, 200),
+                response.getBody().getResults().stream().map(item -> item.getStatusCode()).toList());
+        assertEquals(second, response.getBody().getResults().get(0).getBooking().getUuid());
+        assertEquals("Guest", response.getBody().getResults().get(3).getBooking().getGuests().get(0).getName());
+        assertEquals(PROPERTY_02, response.getBody().getResults().get(3).getBooking().getProperty().getUuid().toString());
+    }
+
+    @Test
+    void findBookingsTest_WithFields_ReturnsOnlyTheRequestedFields() {
+        var begin = LocalDate.now().plusDays(600);
+        var created = restTemplate.postForEntity("/api/v1/booking/batch", List.of(request(PROPERTY_02, begin, begin.plusDays(1))),
+                BatchResultResource.class);
+        var uuid = created.getBody().getResults().get(0).getBooking().getUuid();
+
+        var single = restTemplate.getForEntity("/api/v1/booking/{uuid}?fields=status,guests", BookingResponseResource.class, uuid);
+        assertEquals(HttpStatus.OK, single.getStatusCode());
+        assertTrue(single.getHeaders().getETag().startsWith("W/"));
+        assertEquals(uuid, single.getBody().getUuid());
+        assertEquals("BOOKED", single.getBody().getStatus());
+        assertEquals("Guest", single.getBody().getGuests().get(0).getName());
+        assertNull(single.getBody().getProperty());
+        assertNull(single.getBody().getBeginAt());
+
+        var page = restTemplate.getForEntity("/api/v1/booking?propertyId={propertyId}&from={from}&fields=beginAt,endAt",
+                BookingPageResource.class, PROPERTY_02, begin);
+        var item = page.getBody().getItems().get(0);
+        assertEquals(uuid, item.getUuid());
+        assertEquals(begin, item.getBeginAt());
+        assertNull(item.getStatus());
+        assertNull(item.getProperty());
+        assertNull(item.getGuests());
+
+        var invalid = restTemplate.getForEntity("/api/v1/booking/{uuid}?fields=price", String.class, uuid);
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+    }
+
+    @Test
+    void findBookingsTest_InvalidCursor_MustReturnBadRequest() {
+        var response = restTemplate.getForEntity(LIST_URL, String.class, PROPERTY_02, LocalDate.now(), LocalDate.now(), "%%%");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
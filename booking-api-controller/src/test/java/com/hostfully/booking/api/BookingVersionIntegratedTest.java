@@ -0,0 +1,216 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.exception.ValidationExceptionResource;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.GuestRepository;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_03;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "spring.datasource.url=jdbc:h2:mem:booking-writes"})
+@RunWith(SpringRunner.class)
+class BookingVersionIntegratedTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository repository;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Test
+    void updateBookingTest_IfMatch_RejectsStaleVersion() {
+        var begin = LocalDate.now().plusDays(40);
+        var created = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_03, begin, begin.plusDays(2)), BookingResponseResource.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertEquals("\"0\"", created.getHeaders().getETag());
+        var uri = "/api/v1/booking/" + created.getBody().getUuid();
+
+        var updated = restTemplate.exchange(uri, HttpMethod.PUT,
+                withIfMatch(request(PROPERTY_03, begin, begin.plusDays(3)), "\"0\""), BookingResponseResource.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals("\"1\"", updated.getHeaders().getETag());
+
+        var stale = restTemplate.exchange(uri, HttpMethod.PUT,
+                withIfMatch(request(PROPERTY_03, begin, begin.plusDays(4)), "\"0\""), String.class);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        assertEquals(begin.plusDays(3), restTemplate.getForObject(uri, BookingResponseResource.class).getEndAt());
+
+        var staleCancel = restTemplate.exchange("/api/v1/booking/cancel/" + created.getBody().getUuid(), HttpMethod.PUT,
+                withIfMatch(null, "W/\"1\""), Void.class);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, staleCancel.getStatusCode());
+
+        var canceled = restTemplate.exchange("/api/v1/booking/cancel/" + created.getBody().getUuid(), HttpMethod.PUT,
+                withIfMatch(null, "\"1\""), Void.class);
+        assertEquals(HttpStatus.OK, canceled.getStatusCode());
+        assertEquals("\"2\"", canceled.getHeaders().getETag());
+
+        var rebooked = restTemplate.exchange("/api/v1/booking/rebook/" + created.getBody().getUuid(), HttpMethod.PUT,
+                withIfMatch(null, "\"2-smile\""), Void.class);
+        assertEquals(HttpStatus.OK, rebooked.getStatusCode());
+        assertEquals("\"3\"", restTemplate.getForEntity(uri, String.class).getHeaders().getETag());
+    }
+
+    @Test
+    void saveTest_ConcurrentWrite_MustThrowObjectOptimisticLockingFailureException() {
+        var begin = LocalDate.now().plusDays(60);
+        var created = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_03, begin, begin.plusDays(2)), BookingResponseResource.class);
+        var uuid = UUID.fromString(created.getBody().getUuid());
+
+        var first = repository.findByUuid(uuid).orElseThrow();
+        var second = repository.findByUuid(uuid).orElseThrow();
+        first.setEndAt(begin.plusDays(3));
+        repository.save(first);
+
+        second.setEndAt(begin.plusDays(4));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> repository.save(second));
+    }
+
+    @Test
+    void getByUUIDTest_IfNoneMatch_NotModifiedUntilTheBookingChanges() {
+        var begin = LocalDate.now().plusDays(80);
+        var created = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_03, begin, begin.plusDays(2)), BookingResponseResource.class);
+        var uri = "/api/v1/booking/" + created.getBody().getUuid();
+
+        var first = restTemplate.getForEntity(uri, BookingResponseResource.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("\"0\"", first.getHeaders().getETag());
+        assertEquals("Guest", first.getBody().getGuests().get(0).getName());
+
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"0\"");
+        var notModified = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+
+        restTemplate.put(uri, request(PROPERTY_03, begin, begin.plusDays(5)));
+        var changed = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), BookingResponseResource.class);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("\"1\"", changed.getHeaders().getETag());
+        assertEquals(begin.plusDays(5), changed.getBody().getEndAt());
+
+        assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity("/api/v1/block/" + created.getBody().getUuid(), String.class).getStatusCode());
+    }
+
+    @Test
+    void getFieldsByUUIDTest_IfNoneMatch_NotModifiedVariesByAccept() {
+        var begin = LocalDate.now().plusDays(100);
+        var created = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_03, begin, begin.plusDays(2)), BookingResponseResource.class);
+        var uri = "/api/v1/booking/" + created.getBody().getUuid() + "?fields=status";
+
+        var first = restTemplate.getForEntity(uri, BookingResponseResource.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(List.of(HttpHeaders.ACCEPT), first.getHeaders().getVary());
+
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(first.getHeaders().getETag());
+        var notModified = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(List.of(HttpHeaders.ACCEPT), notModified.getHeaders().getVary());
+    }
+
+    @Test
+    void createAndGetTest_BinaryFormats_NegotiatedWithTheHeaders() throws Exception {
+        var cbor = Jackson2ObjectMapperBuilder.cbor().build();
+        var begin = LocalDate.now().plusDays(90);
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_CBOR);
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        var created = restTemplate.exchange("/api/v1/booking", HttpMethod.POST,
+                new HttpEntity<>(cbor.writeValueAsBytes(request(PROPERTY_03, begin, begin.plusDays(2))), headers), byte[].class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertEquals(MediaType.APPLICATION_CBOR, created.getHeaders().getContentType());
+        var uuid = cbor.readValue(created.getBody(), BookingResponseResource.class).getUuid();
+
+        var found = restTemplate.exchange("/api/v1/booking/" + uuid, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(MediaType.APPLICATION_CBOR, found.getHeaders().getContentType());
+        assertEquals(begin.plusDays(2), cbor.readValue(found.getBody(), BookingResponseResource.class).getEndAt());
+        assertEquals("\"0-cbor\"", found.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT), found.getHeaders().getVary());
+
+        // The tag of the JSON body does not validate the CBOR one, while the CBOR tag does
+        headers.setIfNoneMatch("\"0\"");
+        assertEquals(HttpStatus.OK, restTemplate.exchange("/api/v1/booking/" + uuid, HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class).getStatusCode());
+        headers.setIfNoneMatch("\"0-cbor\"");
+        var notModified = restTemplate.exchange("/api/v1/booking/" + uuid, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(List.of(HttpHeaders.ACCEPT), notModified.getHeaders().getVary());
+        headers.remove(HttpHeaders.IF_NONE_MATCH);
+
+        var smileHeaders = new HttpHeaders();
+        smileHeaders.setAccept(List.of(MediaType.valueOf("application/x-jackson-smile")));
+        var smile = restTemplate.exchange("/api/v1/booking/" + uuid, HttpMethod.GET, new HttpEntity<>(smileHeaders), byte[].class);
+        assertEquals("Guest", Jackson2ObjectMapperBuilder.smile().build()
+                .readValue(smile.getBody(), BookingResponseResource.class).getGuests().get(0).getName());
+
+        var invalid = restTemplate.exchange("/api/v1/booking/invalid", HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+        assertEquals(400, cbor.readValue(invalid.getBody(), ValidationExceptionResource.class).statusCode());
+
+        var textHeaders = new HttpHeaders();
+        textHeaders.setAccept(List.of(MediaType.TEXT_PLAIN));
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, restTemplate.exchange("/api/v1/booking/" + uuid, HttpMethod.GET,
+                new HttpEntity<>(textHeaders), String.class).getStatusCode());
+    }
+
+    @Test
+    void updateBookingTest_GuestsMatchedByUuid_OnlyChangedRowsWritten() {
+        var begin = LocalDate.now().plusDays(110);
+        var created = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_03, begin, begin.plusDays(2)), BookingResponseResource.class);
+        var uri = "/api/v1/booking/" + created.getBody().getUuid();
+        var guestUuid = created.getBody().getGuests().get(0).getUuid();
+
+        var renamed = request(PROPERTY_03, begin, begin.plusDays(2));
+        renamed.getGuests().get(0).setUuid(guestUuid);
+        renamed.getGuests().get(0).setName("Renamed Guest");
+        var updated = restTemplate.exchange(uri, HttpMethod.PUT, withIfMatch(renamed, "\"0\""), BookingResponseResource.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals("\"1\"", updated.getHeaders().getETag());
+        assertEquals(guestUuid, updated.getBody().getGuests().get(0).getUuid());
+        assertEquals("Renamed Guest", restTemplate.getForObject(uri, BookingResponseResource.class).getGuests().get(0).getName());
+
+        var replaced = restTemplate.exchange(uri, HttpMethod.PUT, withIfMatch(request(PROPERTY_03, begin, begin.plusDays(2)), "\"1\""),
+                BookingResponseResource.class);
+        assertEquals(HttpStatus.OK, replaced.getStatusCode());
+        assertNotEquals(guestUuid, replaced.getBody().getGuests().get(0).getUuid());
+        assertTrue(guestRepository.findByUuidIn(List.of(UUID.fromString(guestUuid))).isEmpty());
+
+        var newGuestUuid = UUID.fromString(replaced.getBody().getGuests().get(0).getUuid());
+        assertEquals(HttpStatus.NO_CONTENT, restTemplate.exchange(uri, HttpMethod.DELETE, null, Void.class).getStatusCode());
+        assertTrue(guestRepository.findByUuidIn(List.of(newGuestUuid)).isEmpty());
+    }
+
+    private static HttpEntity<BookingRequestResource> withIfMatch(BookingRequestResource body, String ifMatch) {
+        var headers = new HttpHeaders();
+        headers.setIfMatch(ifMatch);
+        return new HttpEntity<>(body, headers);
+    }
+}
@@ -0,0 +1,167 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.GuestRepository;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.GuestPageResource;
+import com.hostfully.booking.api.resource.GuestResource;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_04;
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_05;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "spring.datasource.url=jdbc:h2:mem:booking-writes"})
+@RunWith(SpringRunner.class)
+class GuestIntegratedTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private GuestRepository guestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createBookingTest_SameGuest_LinksTheStoredGuest() {
+        var document = UUID.randomUUID().toString();
+        var begin = LocalDate.now().plusDays(300);
+        var first = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin, begin.plusDays(2), guest("Zoë Repeated", document, null)), BookingResponseResource.class);
+        var second = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin.plusDays(10), begin.plusDays(12), guest("Zoë Repeated", document, null)), BookingResponseResource.class);
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        // The same document under another name is another guest, and never reads the stored one
+        var other = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin.plusDays(20), begin.plusDays(22), guest("Zoe Repeated", document, null)), BookingResponseResource.class);
+        assertEquals("Zoe Repeated", other.getBody().getGuests().get(0).getName());
+
+        var guestUuid = first.getBody().getGuests().get(0).getUuid();
+        assertEquals(guestUuid, second.getBody().getGuests().get(0).getUuid());
+        assertNotEquals(guestUuid, other.getBody().getGuests().get(0).getUuid());
+        var found = restTemplate.getForObject("/api/v1/guest?documentType=PASSPORT&documentNumber=" + document,
+                GuestPageResource.class);
+        assertEquals(List.of("Zoe Repeated", "Zoë Repeated"), found.getItems().stream().map(GuestResource::getName).sorted().toList());
+
+        restTemplate.delete("/api/v1/booking/" + first.getBody().getUuid());
+        assertEquals(1, guestRepository.findByUuidIn(List.of(UUID.fromString(guestUuid))).size());
+        restTemplate.delete("/api/v1/booking/" + second.getBody().getUuid());
+        assertTrue(guestRepository.findByUuidIn(List.of(UUID.fromString(guestUuid))).isEmpty());
+    }
+
+    @Test
+    void updateBookingTest_SharedGuestChanged_OnlyThisBookingSeesTheChange() {
+        var document = UUID.randomUUID().toString();
+        var begin = LocalDate.now().plusDays(360);
+        var first = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin, begin.plusDays(2), guest("Shared Guest", document, null)), BookingResponseResource.class);
+        var second = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin.plusDays(10), begin.plusDays(12), guest("Shared Guest", document, null)), BookingResponseResource.class);
+        var guestUuid = first.getBody().getGuests().get(0).getUuid();
+
+        var renamed = request(PROPERTY_05, begin.plusDays(10), begin.plusDays(12), guest("Renamed Guest", document, null));
+        renamed.getGuests().get(0).setUuid(guestUuid);
+        restTemplate.put("/api/v1/booking/" + second.getBody().getUuid(), renamed);
+
+        var changed = restTemplate.getForObject("/api/v1/booking/" + second.getBody().getUuid(), BookingResponseResource.class);
+        assertEquals("Renamed Guest", changed.getGuests().get(0).getName());
+        assertNotEquals(guestUuid, changed.getGuests().get(0).getUuid());
+        var untouched = restTemplate.getForObject("/api/v1/booking/" + first.getBody().getUuid(), BookingResponseResource.class);
+        assertEquals("Shared Guest", untouched.getGuests().get(0).getName());
+        assertEquals(guestUuid, untouched.getGuests().get(0).getUuid());
+    }
+
+    @Test
+    void deleteBookingTest_OrphanLinkedMeanwhile_IsKept() throws Exception {
+        var begin = LocalDate.now().plusDays(390);
+        var first = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin, begin.plusDays(2), guest("Orphan Guest", UUID.randomUUID().toString(), null)),
+                BookingResponseResource.class).getBody();
+        var other = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_04, begin, begin.plusDays(2)),
+                BookingResponseResource.class).getBody();
+        var guestUuid = UUID.fromString(first.getGuests().get(0).getUuid());
+        var guestId = guestRepository.findByUuidIn(List.of(guestUuid)).get(0).getId();
+        var otherId = bookingRepository.findByUuid(UUID.fromString(other.getUuid())).orElseThrow().getId();
+
+        // A booking of another property links the guest while the first booking is deleted
+        var locked = new CountDownLatch(1);
+        var link = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            guestRepository.lockByIdIn(List.of(guestId));
+            locked.countDown();
+            LockSupport.parkNanos(Duration.ofMillis(300).toNanos());
+            jdbcTemplate.update("INSERT INTO BOOKING_GUEST (ID_BOOKING, ID_GUEST) VALUES (?, ?)", otherId, guestId);
+        }));
+        locked.await();
+        var deleted = restTemplate.exchange("/api/v1/booking/" + first.getUuid(), HttpMethod.DELETE, null, Void.class);
+        link.join();
+
+        assertEquals(HttpStatus.NO_CONTENT, deleted.getStatusCode());
+        assertEquals(1, guestRepository.findByUuidIn(List.of(guestUuid)).size());
+    }
+
+    @Test
+    void searchGuestsTest_ByEmailAndNamePrefix() {
+        var email = UUID.randomUUID() + "@guest.com";
+        var begin = LocalDate.now().plusDays(330);
+        var created = restTemplate.postForEntity("/api/v1/booking",
+                request(PROPERTY_05, begin, begin.plusDays(2), guest("Ålvaro Prefixed", null, email.toUpperCase()), guest("Alvaro Prefixedson", null, email)),
+                BookingResponseResource.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+
+        var byEmail = restTemplate.getForObject("/api/v1/guest?email= " + email.toUpperCase(), GuestPageResource.class);
+        assertEquals(List.of("Ålvaro Prefixed", "Alvaro Prefixedson"), byEmail.getItems().stream().map(GuestResource::getName).toList());
+
+        var firstPage = restTemplate.getForObject("/api/v1/guest?name=ALVARO PREF&limit=1", GuestPageResource.class);
+        assertEquals("Ålvaro Prefixed", firstPage.getItems().get(0).getName());
+        assertNotNull(firstPage.getNextCursor());
+        var nextPage = restTemplate.getForObject("/api/v1/guest?name=alvaro pref&limit=1&cursor=" + firstPage.getNextCursor(),
+                GuestPageResource.class);
+        assertEquals("Alvaro Prefixedson", nextPage.getItems().get(0).getName());
+        assertNull(nextPage.getNextCursor());
+
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/v1/guest?name=a", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/v1/guest?name=alvaro&email=" + email, String.class).getStatusCode());
+    }
+
+    private static GuestResource guest(String name, String documentNumber, String email) {
+        var guest = new GuestResource();
+        guest.setName(name);
+        guest.setAge(40);
+        guest.setEmail(email);
+        if (documentNumber != null) {
+            guest.setDocumentType("PASSPORT");
+            guest.setDocumentNumber(documentNumber);
+        }
+        return guest;
+    }
+}
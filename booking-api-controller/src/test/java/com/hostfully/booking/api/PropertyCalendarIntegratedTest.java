@@ -0,0 +1,61 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_05;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "spring.datasource.url=jdbc:h2:mem:booking-writes"})
+@RunWith(SpringRunner.class)
+class PropertyCalendarIntegratedTest {
+
+    private static final String CALENDAR_URL = "/api/v1/property/{uuid}/calendar.ics";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void getCalendarTest_NotModifiedUntilThePropertyChanges() {
+        var first = restTemplate.getForEntity(CALENDAR_URL, String.class, PROPERTY_05);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("text/calendar;charset=UTF-8", first.getHeaders().getContentType().toString());
+        var eTag = first.getHeaders().getETag();
+
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        var notModified = restTemplate.exchange(CALENDAR_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class, PROPERTY_05);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+
+        var begin = LocalDate.now().plusDays(200);
+        var created = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_05, begin, begin.plusDays(2)), BookingResponseResource.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+
+        var changed = restTemplate.exchange(CALENDAR_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class, PROPERTY_05);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(eTag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains("UID:" + created.getBody().getUuid() + "@booking-api\r\n"));
+    }
+
+    @Test
+    void getCalendarTest_UnknownProperty_MustReturnNotFound() {
+        var response = restTemplate.getForEntity(CALENDAR_URL, String.class, "00000000-0000-0000-0000-000000000000");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
@@ -0,0 +1,63 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.resource.PropertyPageResource;
+import com.hostfully.booking.api.resource.PropertyResource;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_01;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"booking.availability.preload=false"})
+@RunWith(SpringRunner.class)
+class PropertyCatalogIntegratedTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void findPropertiesTest_WalksEveryPage() {
+        var names = new ArrayList<String>();
+        String cursor = "";
+        do {
+            var page = restTemplate.getForEntity("/api/v1/property?limit=2&cursor={cursor}", PropertyPageResource.class, cursor);
+            assertEquals(HttpStatus.OK, page.getStatusCode());
+            assertEquals("max-age=300, public", page.getHeaders().getCacheControl());
+            page.getBody().getItems().forEach(property -> names.add(property.getName()));
+            cursor = page.getBody().getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, names.size());
+    }
+
+    @Test
+    void getByUUIDTest_ConditionalRequest_MustReturnNotModified() {
+        var property = restTemplate.getForEntity("/api/v1/property/{uuid}", PropertyResource.class, PROPERTY_01);
+        assertEquals(HttpStatus.OK, property.getStatusCode());
+        assertEquals(PROPERTY_01, property.getBody().getUuid().toString());
+
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(property.getHeaders().getETag());
+        var notModified = restTemplate.exchange("/api/v1/property/{uuid}", HttpMethod.GET, new HttpEntity<>(headers),
+                PropertyResource.class, PROPERTY_01);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    }
+
+    @Test
+    void getByUUIDTest_UnknownProperty_MustReturnNotFound() {
+        var response = restTemplate.getForEntity("/api/v1/property/{uuid}", String.class, "00000000-0000-0000-0000-000000000000");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
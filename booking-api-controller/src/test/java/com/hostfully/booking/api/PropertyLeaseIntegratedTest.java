@@ -0,0 +1,87 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.exception.BusinessException;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.repository.PropertyLeaseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "booking.lease.enabled=true",
+                "booking.lease.wait-millis=0", "spring.datasource.url=jdbc:h2:mem:booking-leases"})
+@RunWith(SpringRunner.class)
+class PropertyLeaseIntegratedTest {
+
+    @Autowired
+    private PropertyLeaseRepository repository;
+    @Autowired
+    private PropertyLockManager lockManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void tryAcquireTest_HeldLease_IsNotGrantedUntilTheTransactionEnds() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(repository.tryAcquire(3L));
+            assertFalse(CompletableFuture.supplyAsync(() -> repository.tryAcquire(3L)).join());
+        });
+
+        assertTrue(repository.tryAcquire(3L));
+    }
+
+    @Test
+    void executeLockedTest_LeaseHeldByAnotherInstance_IsRejectedWithoutWriting() throws InterruptedException {
+        var propertyUuid = jdbcTemplate.queryForObject("SELECT UUID_PROPERTY FROM PROPERTY WHERE ID_PROPERTY = 2", UUID.class);
+        var description = jdbcTemplate.queryForObject("SELECT DESC_PROPERTY FROM PROPERTY WHERE ID_PROPERTY = 2", String.class);
+        var held = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // Another instance holds the lease in a write transaction that has not ended yet
+        var otherInstance = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            repository.tryAcquire(2L);
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        held.await();
+
+        var except = assertThrows(BusinessException.class, () -> lockManager.executeLocked(2L, propertyUuid, () ->
+                jdbcTemplate.update("UPDATE PROPERTY SET DESC_PROPERTY = 'Concurrent' WHERE ID_PROPERTY = 2")));
+        release.countDown();
+        otherInstance.join();
+
+        assertEquals("The property is being updated by another request. Please try again", except.getMessage());
+        assertEquals(description, jdbcTemplate.queryForObject("SELECT DESC_PROPERTY FROM PROPERTY WHERE ID_PROPERTY = 2", String.class));
+    }
+
+    @Test
+    void executeLockedTest_RolledBackWrite_ReleasesTheLease() {
+        var propertyUuid = jdbcTemplate.queryForObject("SELECT UUID_PROPERTY FROM PROPERTY WHERE ID_PROPERTY = 4", UUID.class);
+
+        assertThrows(BusinessException.class, () -> lockManager.executeLocked(4L, propertyUuid, () -> {
+            throw new BusinessException("Conflict");
+        }));
+
+        assertTrue(CompletableFuture.supplyAsync(() -> repository.tryAcquire(4L)).join());
+    }
+}
@@ -0,0 +1,84 @@
+package com.hostfully.booking.api;
+
+import com.hostfully.booking.api.resource.BookingPageResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.PropertyResource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+
+import static com.hostfully.booking.api.BookingFixtures.PROPERTY_01;
+import static com.hostfully.booking.api.BookingFixtures.request;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"booking.availability.preload=false", "spring.datasource.url=jdbc:h2:mem:booking-reads",
+                "spring.jpa.properties.hibernate.generate_statistics=true"})
+@RunWith(SpringRunner.class)
+class ReadPathStatementIntegratedTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getByUUIDTest_FixedStatementCount() {
+        var begin = LocalDate.now().plusDays(30);
+        var uuid = restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_01, begin, begin.plusDays(2)), BookingResponseResource.class)
+                .getBody().getUuid();
+        var uri = "/api/v1/booking/" + uuid;
+
+        assertEquals(1, statementsOf(uri, BookingResponseResource.class), "cache miss");
+        // A hit only reads the version, as another instance may have changed the booking
+        assertEquals(1, statementsOf(uri, BookingResponseResource.class), "cache hit");
+        assertEquals(1, statementsOf(uri + "?fields=status,beginAt", BookingResponseResource.class));
+        assertEquals(1, statementsOf(uri + "?fields=property", BookingResponseResource.class));
+        assertEquals(2, statementsOf(uri + "?fields=guests", BookingResponseResource.class));
+        assertEquals(2, statementsOf(uri + "?fields=property,guests", BookingResponseResource.class));
+    }
+
+    @Test
+    void findBookingsTest_FixedStatementCount() {
+        var begin = LocalDate.now().plusDays(60);
+        for (int i = 0; i < 3; i++) {
+            restTemplate.postForEntity("/api/v1/booking", request(PROPERTY_01, begin.plusDays(i * 3L), begin.plusDays(i * 3L + 1)),
+                    BookingResponseResource.class);
+        }
+        var uri = "/api/v1/booking?propertyId=" + PROPERTY_01 + "&from=" + begin;
+
+        // The property of the filter, the page and the guests of the whole page
+        assertEquals(3, statementsOf(uri, BookingPageResource.class));
+        assertEquals(2, statementsOf(uri + "&fields=beginAt,endAt", BookingPageResource.class));
+    }
+
+    @Test
+    void getPropertyTest_SingleStatement() {
+        assertEquals(1, statementsOf("/api/v1/property/" + PROPERTY_01, PropertyResource.class));
+    }
+
+    private long statementsOf(String uri, Class<?> type) {
+        statistics.clear();
+        var response = restTemplate.getForEntity(uri, type);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return statistics.getPrepareStatementCount();
+    }
+}
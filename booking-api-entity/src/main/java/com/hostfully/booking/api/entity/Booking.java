@@ -13,6 +13,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -27,7 +28,7 @@ public class Booking implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_booking")
-    @SequenceGenerator(name = "seq_booking", sequenceName = "SEQ_BOOKING", allocationSize = 1)
+    @SequenceGenerator(name = "seq_booking", sequenceName = "SEQ_BOOKING", allocationSize = 50)
     @Column(name = "ID_BOOKING", precision = 18, nullable = false, unique = true)
     private Long id;
 
@@ -47,13 +48,17 @@ public class Booking implements Serializable {
     @Column(name = "DT_END", length = 10, nullable = false)
     private LocalDate endAt;
 
-    @ManyToMany(cascade = CascadeType.ALL)
+    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
             name = "BOOKING_GUEST",
             joinColumns = @JoinColumn(name = "ID_BOOKING"),
             inverseJoinColumns = @JoinColumn(name = "ID_GUEST"))
     private List<Guest> guests;
 
+    @Version
+    @Column(name = "VERSION_BOOKING", precision = 18, nullable = false)
+    private Long version;
+
     @PrePersist
     private void generateUUID() {
         this.setUuid(UUID.randomUUID());
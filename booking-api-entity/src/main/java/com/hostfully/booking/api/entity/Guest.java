@@ -11,16 +11,23 @@ import jakarta.persistence.Table;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.text.Normalizer;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Data
 @Entity
 @Table(name = "GUEST")
 public class Guest implements Serializable {
 
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_guest")
-    @SequenceGenerator(name = "seq_guest", sequenceName = "SEQ_GUEST", allocationSize = 1)
+    @SequenceGenerator(name = "seq_guest", sequenceName = "SEQ_GUEST", allocationSize = 50)
     @Column(name = "ID_GUEST", precision = 18, nullable = false, unique = true)
     private Long id;
 
@@ -42,6 +49,37 @@ public class Guest implements Serializable {
     @Column(name = "DOC_NMB_GUEST", length = 100)
     private String documentNumber;
 
+    @Column(name = "NAME_NORM_GUEST", length = 100, nullable = false)
+    private String normalizedName;
+
+    @Column(name = "EMAIL_NORM_GUEST", length = 100)
+    private String normalizedEmail;
+
+    public void setName(String name) {
+        this.name = name;
+        this.normalizedName = normalize(name);
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.normalizedEmail = normalize(email);
+    }
+
+    /**
+     * Search key of names and emails: trimmed, lower case, without accents and with single spaces, so equal keys
+     * can be compared, and prefixes ranged, on a plain index.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        var normalized = WHITESPACE.matcher(DIACRITICS.matcher(Normalizer.normalize(text.strip(), Normalizer.Form.NFKD))
+                .replaceAll(""))
+                .replaceAll(" ")
+                .toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_KEY_LENGTH ? normalized.substring(0, MAX_KEY_LENGTH) : normalized;
+    }
+
     @PrePersist
     private void generateUUID() {
         this.setUuid(UUID.randomUUID());
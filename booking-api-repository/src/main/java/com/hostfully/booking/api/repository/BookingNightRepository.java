@@ -0,0 +1,83 @@
+package com.hostfully.booking.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * One row per occupied night of a property in BOOKING_NIGHT. The primary key over the property and the
+ * night is what rejects two bookings sharing a night, so a conflicting insert fails as a whole.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingNightRepository {
+
+    private static final String INSERT =
+            "INSERT INTO BOOKING_NIGHT (ID_PROPERTY, NIGHT, ID_BOOKING) VALUES (?, ?, ?)";
+
+    private static final String DELETE_BY_BOOKING =
+            "DELETE FROM BOOKING_NIGHT WHERE ID_BOOKING = ?";
+
+    private static final String ANY_NIGHT =
+            "SELECT COUNT(*) FROM (SELECT 1 FROM BOOKING_NIGHT FETCH FIRST 1 ROWS ONLY)";
+
+    private static final String BACKFILL =
+            "INSERT INTO BOOKING_NIGHT (ID_PROPERTY, NIGHT, ID_BOOKING) " +
+            "   SELECT b.ID_PROPERTY, DATEADD(DAY, r.X, b.DT_START), MIN(b.ID_BOOKING) " +
+            "       FROM BOOKING b " +
+            "       JOIN SYSTEM_RANGE(0, 36600) r ON r.X <= DATEDIFF(DAY, b.DT_START, b.DT_END) " +
+            "       WHERE b.ST_BOOKING IN (%s) " +
+            "       GROUP BY b.ID_PROPERTY, DATEADD(DAY, r.X, b.DT_START)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts every night between the dates, both included, in a single batch.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException when any of the nights is already taken
+     */
+    public void insertNights(Long bookingId, Long propertyId, LocalDate beginAt, LocalDate endAt) {
+        var nights = (int) ChronoUnit.DAYS.between(beginAt, endAt) + 1;
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, propertyId);
+                ps.setDate(2, Date.valueOf(beginAt.plusDays(i)));
+                ps.setLong(3, bookingId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return nights;
+            }
+        });
+    }
+
+    public int deleteNights(Long bookingId) {
+        return jdbcTemplate.update(DELETE_BY_BOOKING, bookingId);
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForObject(ANY_NIGHT, Integer.class) == 0;
+    }
+
+    /**
+     * Fills BOOKING_NIGHT from the bookings stored before the table was in use. A night claimed by more than
+     * one booking is assigned to the oldest of them.
+     *
+     * @param statuses the stored values of the statuses occupying nights
+     * @return the number of nights inserted
+     */
+    public int backfill(List<String> statuses) {
+        var placeholders = String.join(", ", statuses.stream().map(status -> "?").toList());
+        return jdbcTemplate.update(BACKFILL.formatted(placeholders), statuses.toArray());
+    }
+}
@@ -2,21 +2,70 @@ package com.hostfully.booking.api.repository;
 
 import com.hostfully.booking.api.entity.Booking;
 import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.repository.projection.BookingDetailProjection;
+import com.hostfully.booking.api.repository.projection.BookingExportProjection;
+import com.hostfully.booking.api.repository.projection.BookingIntervalProjection;
+import com.hostfully.booking.api.repository.projection.GuestExportProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findByUuid(UUID uuid);
 
+    @EntityGraph(attributePaths = {"property", "guests"})
+    Optional<Booking> findDetailedByUuid(UUID uuid);
+
+    /**
+     * The booking, its property and its guests in a single read-only query, one row per guest, without putting any
+     * entity in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT b.id AS id, b.uuid AS uuid, b.status AS status, b.beginAt AS beginAt, b.endAt AS endAt, " +
+                    "       b.version AS version, p.id AS propertyId, p.uuid AS propertyUuid, p.name AS propertyName, " +
+                    "       p.description AS propertyDescription, g.uuid AS guestUuid, g.name AS guestName, g.age AS guestAge, " +
+                    "       g.email AS guestEmail, g.documentType AS guestDocumentType, g.documentNumber AS guestDocumentNumber " +
+                    "   FROM Booking b " +
+                    "       JOIN b.property p " +
+                    "       LEFT JOIN b.guests g " +
+                    "       WHERE b.uuid = :uuid " +
+                    "   ORDER BY g.id")
+    List<BookingDetailProjection> findDetailRowsByUuid(@Param("uuid") UUID uuid);
+
+    /**
+     * Version of the booking alone, read through the unique index of its UUID.
+     */
+    @Query(value = "SELECT b.version FROM Booking b WHERE b.uuid = :uuid")
+    Optional<Long> findVersionByUuid(@Param("uuid") UUID uuid);
+
+    /**
+     * The other bookings referencing any of the guests, read through IDX_BOOKING_GUEST_GUEST.
+     */
+    @Query(value = "SELECT DISTINCT b.uuid FROM Booking b " +
+                    "       JOIN b.guests g " +
+                    "       WHERE g.id IN :guestIds " +
+                    "         AND b.id <> :bookingId")
+    List<UUID> findUuidsSharingGuests(@Param("bookingId") Long bookingId, @Param("guestIds") Collection<Long> guestIds);
+
+    @EntityGraph(attributePaths = {"property", "guests"})
+    List<Booking> findDetailedByUuidIn(Collection<UUID> uuids);
+
     @Query(value = "SELECT CASE WHEN (COUNT(b) > 0) THEN true ELSE false END " +
                     "   FROM Booking b " +
                     "       WHERE (:bookingId != b.id) " +
@@ -32,4 +81,63 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                 @Param("bookingStatuses") List<BookingStatus> bookingStatuses,
                                 @Param("beginDate") LocalDate beginDate,
                                 @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT b.id AS id, b.property.uuid AS propertyUuid, b.beginAt AS beginAt, b.endAt AS endAt " +
+                    "   FROM Booking b " +
+                    "       WHERE b.property.uuid = :propertyUuid " +
+                    "         AND b.status IN :bookingStatuses")
+    List<BookingIntervalProjection> findIntervalsByProperty(@Param("propertyUuid") UUID propertyUuid,
+                                                            @Param("bookingStatuses") List<BookingStatus> bookingStatuses);
+
+    @Query(value = "SELECT b.id AS id, b.property.uuid AS propertyUuid, b.beginAt AS beginAt, b.endAt AS endAt " +
+                    "   FROM Booking b " +
+                    "       WHERE b.property.id = :propertyId " +
+                    "         AND b.status IN :bookingStatuses " +
+                    "         AND b.endAt >= :beginDate " +
+                    "         AND b.beginAt <= :endDate")
+    List<BookingIntervalProjection> findIntervalsBetween(@Param("propertyId") Long propertyId,
+                                                         @Param("bookingStatuses") List<BookingStatus> bookingStatuses,
+                                                         @Param("beginDate") LocalDate beginDate,
+                                                         @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT b.id AS id, b.property.uuid AS propertyUuid, b.beginAt AS beginAt, b.endAt AS endAt " +
+                    "   FROM Booking b " +
+                    "       WHERE b.status IN :bookingStatuses")
+    List<BookingIntervalProjection> findAllIntervals(@Param("bookingStatuses") List<BookingStatus> bookingStatuses);
+
+    /**
+     * Rows are read as projections, so nothing is kept in the persistence context while the stream is consumed.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT b.id AS id, b.uuid AS uuid, b.property.uuid AS propertyUuid, b.status AS status, " +
+                    "       b.beginAt AS beginAt, b.endAt AS endAt " +
+                    "   FROM Booking b " +
+                    "       WHERE b.property.id = :propertyId " +
+                    "         AND (:beginDate IS NULL OR b.endAt >= :beginDate) " +
+                    "         AND (:endDate IS NULL OR b.beginAt <= :endDate) " +
+                    "   ORDER BY b.beginAt, b.id")
+    Stream<BookingExportProjection> streamForExport(@Param("propertyId") Long propertyId,
+                                                    @Param("beginDate") LocalDate beginDate,
+                                                    @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT b.id AS id, b.uuid AS uuid, b.property.uuid AS propertyUuid, b.status AS status, " +
+                    "       b.beginAt AS beginAt, b.endAt AS endAt " +
+                    "   FROM Booking b " +
+                    "       WHERE b.property.id = :propertyId " +
+                    "         AND b.status IN :bookingStatuses " +
+                    "   ORDER BY b.beginAt, b.id")
+    List<BookingExportProjection> findCalendarEntries(@Param("propertyId") Long propertyId,
+                                                      @Param("bookingStatuses") List<BookingStatus> bookingStatuses);
+
+    @Query(value = "SELECT b.id AS bookingId, g.name AS name, g.age AS age, g.email AS email, " +
+                    "       g.documentType AS documentType, g.documentNumber AS documentNumber " +
+                    "   FROM Booking b " +
+                    "       JOIN b.guests g " +
+                    "       WHERE b.id IN :bookingIds " +
+                    "   ORDER BY b.id, g.id")
+    List<GuestExportProjection> findGuestsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
 }
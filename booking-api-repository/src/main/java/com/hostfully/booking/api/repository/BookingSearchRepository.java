@@ -0,0 +1,141 @@
+package com.hostfully.booking.api.repository;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.Guest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset pagination over BOOKING ordered by (DT_START, ID_BOOKING). A page seeks past the last row of the previous
+ * one instead of skipping an offset, so any page reads only its own rows from IDX_BOOKING_START or
+ * IDX_BOOKING_PROPERTY_START. The query is assembled from the filters actually given, keeping the predicates
+ * usable by the index. The from date filters on DT_END, which no DT_START index can bound, so the first page
+ * reads the range of IDX_BOOKING_END or IDX_BOOKING_PROPERTY_END instead of every booking that ended before it.
+ * <p>
+ * The property and the guests are only read when asked for. Without the property the columns of BOOKING are
+ * selected on their own, since selecting the entity would load its eager property anyway, and the bookings are
+ * built from them detached from the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingSearchRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Bookings of the page with their property and guests loaded, the guests of the whole page in a single query.
+     */
+    @Transactional(readOnly = true)
+    public List<Booking> findPage(Criteria criteria, int limit) {
+        return findPage(criteria, limit, Associations.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Booking> findPage(Criteria criteria, int limit, Associations associations) {
+        var where = new StringBuilder(" WHERE 1 = 1");
+        var parameters = new HashMap<String, Object>();
+        if (criteria.propertyId() != null) {
+            where.append(" AND b.property.id = :propertyId");
+            parameters.put("propertyId", criteria.propertyId());
+        }
+        if (criteria.status() != null) {
+            where.append(" AND b.status = :status");
+            parameters.put("status", criteria.status());
+        }
+        if (criteria.from() != null) {
+            where.append(" AND b.endAt >= :from");
+            parameters.put("from", criteria.from());
+        }
+        if (criteria.to() != null) {
+            where.append(" AND b.beginAt <= :to");
+            parameters.put("to", criteria.to());
+        }
+        if (criteria.afterBeginAt() != null) {
+            // The leading range on DT_START is what lets the database seek, the rest breaks the ties
+            where.append(" AND b.beginAt >= :afterBeginAt AND (b.beginAt > :afterBeginAt OR b.id > :afterId)");
+            parameters.put("afterBeginAt", criteria.afterBeginAt());
+            parameters.put("afterId", criteria.afterId());
+        }
+        where.append(" ORDER BY b.beginAt, b.id");
+        return select(where.toString(), parameters, limit, associations);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Booking> findByUuid(UUID uuid, Associations associations) {
+        return select(" WHERE b.uuid = :uuid", Map.of("uuid", uuid), 1, associations).stream().findFirst();
+    }
+
+    private List<Booking> select(String where, Map<String, Object> parameters, int limit, Associations associations) {
+        List<Booking> bookings;
+        if (associations.property()) {
+            var query = entityManager.createQuery("SELECT b FROM Booking b JOIN FETCH b.property" + where, Booking.class)
+                    .setMaxResults(limit);
+            parameters.forEach(query::setParameter);
+            bookings = query.getResultList();
+        } else {
+            var query = entityManager.createQuery(
+                            "SELECT b.id, b.uuid, b.status, b.beginAt, b.endAt, b.version FROM Booking b" + where, Tuple.class)
+                    .setMaxResults(limit);
+            parameters.forEach(query::setParameter);
+            bookings = query.getResultStream().map(BookingSearchRepository::toBooking).toList();
+        }
+
+        if (associations.guests() && !bookings.isEmpty()) {
+            if (associations.property()) {
+                // Initializes the guests of the bookings already in the persistence context
+                entityManager.createQuery("SELECT DISTINCT b FROM Booking b LEFT JOIN FETCH b.guests WHERE b IN :bookings", Booking.class)
+                        .setParameter("bookings", bookings)
+                        .getResultList();
+            } else {
+                fillGuests(bookings);
+            }
+        }
+        return bookings;
+    }
+
+    private void fillGuests(List<Booking> bookings) {
+        var byId = bookings.stream().collect(Collectors.toMap(Booking::getId, Function.identity()));
+        byId.values().forEach(booking -> booking.setGuests(new ArrayList<>()));
+        entityManager.createQuery("SELECT b.id, g FROM Booking b JOIN b.guests g WHERE b.id IN :ids", Tuple.class)
+                .setParameter("ids", byId.keySet())
+                .getResultStream()
+                .forEach(row -> byId.get(row.get(0, Long.class)).getGuests().add(row.get(1, Guest.class)));
+    }
+
+    private static Booking toBooking(Tuple row) {
+        var booking = new Booking();
+        booking.setId(row.get(0, Long.class));
+        booking.setUuid(row.get(1, UUID.class));
+        booking.setStatus(row.get(2, BookingStatus.class));
+        booking.setBeginAt(row.get(3, LocalDate.class));
+        booking.setEndAt(row.get(4, LocalDate.class));
+        booking.setVersion(row.get(5, Long.class));
+        return booking;
+    }
+
+    public record Criteria(Long propertyId, BookingStatus status, LocalDate from, LocalDate to,
+                           LocalDate afterBeginAt, Long afterId) {
+    }
+
+    /**
+     * Associations of BOOKING to read along with it.
+     */
+    public record Associations(boolean property, boolean guests) {
+
+        public static final Associations ALL = new Associations(true, true);
+    }
+}
@@ -1,9 +1,18 @@
 package com.hostfully.booking.api.repository;
 
+import com.hostfully.booking.api.entity.DocumentType;
 import com.hostfully.booking.api.entity.Guest;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +20,73 @@ import java.util.UUID;
 public interface GuestRepository extends JpaRepository<Guest, Long> {
 
     List<Guest> findByUuidIn(List<UUID> uuids);
+
+    /**
+     * Candidates for the given documents, to be matched field by field by the caller, through IDX_GUEST_DOCUMENT.
+     * The rows are locked, so they cannot be changed or deleted before the caller links them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT g FROM Guest g " +
+                    "       WHERE g.documentType IN :types " +
+                    "         AND g.documentNumber IN :numbers " +
+                    "   ORDER BY g.id")
+    List<Guest> findByDocuments(@Param("types") Collection<DocumentType> types,
+                                @Param("numbers") Collection<String> numbers);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT g FROM Guest g " +
+                    "       WHERE g.normalizedEmail IN :emails " +
+                    "   ORDER BY g.id")
+    List<Guest> findByNormalizedEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Keyset page of the guests with the document, ordered by the normalized name and the id like the other
+     * searches. The first page starts after an empty name and the id 0.
+     */
+    @Query(value = "SELECT g FROM Guest g " +
+                    "       WHERE g.documentType = :type " +
+                    "         AND g.documentNumber = :number " +
+                    "         AND (g.normalizedName > :afterName OR (g.normalizedName = :afterName AND g.id > :afterId)) " +
+                    "   ORDER BY g.normalizedName, g.id")
+    List<Guest> searchByDocument(@Param("type") DocumentType type, @Param("number") String number,
+                                 @Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT g FROM Guest g " +
+                    "       WHERE g.normalizedEmail = :email " +
+                    "         AND (g.normalizedName > :afterName OR (g.normalizedName = :afterName AND g.id > :afterId)) " +
+                    "   ORDER BY g.normalizedName, g.id")
+    List<Guest> searchByEmail(@Param("email") String email,
+                              @Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Names starting with the prefix, as the range from the prefix to the prefix with its last character incremented,
+     * or with no upper end when there is no such string.
+     */
+    @Query(value = "SELECT g FROM Guest g " +
+                    "       WHERE g.normalizedName >= :from " +
+                    "         AND (:to IS NULL OR g.normalizedName < :to) " +
+                    "         AND (g.normalizedName > :afterName OR (g.normalizedName = :afterName AND g.id > :afterId)) " +
+                    "   ORDER BY g.normalizedName, g.id")
+    List<Guest> searchByNameRange(@Param("from") String from, @Param("to") String to,
+                                  @Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT g FROM Guest g WHERE g.id IN :ids ORDER BY g.id")
+    List<Guest> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT DISTINCT g.id FROM Booking b " +
+                    "       JOIN b.guests g " +
+                    "       WHERE g.id IN :ids " +
+                    "         AND b.id <> :bookingId")
+    List<Long> findIdsSharedWithOtherBookings(@Param("bookingId") Long bookingId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes, in a single statement, the given guests that no booking references anymore.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM Guest g " +
+                    "       WHERE g.id IN :ids " +
+                    "         AND NOT EXISTS (SELECT 1 FROM Booking b JOIN b.guests bg WHERE bg.id = g.id)")
+    int deleteOrphansByIdIn(@Param("ids") Collection<Long> ids);
 }
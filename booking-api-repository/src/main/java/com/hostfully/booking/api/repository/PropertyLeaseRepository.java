@@ -0,0 +1,32 @@
+package com.hostfully.booking.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Leases over the properties, shared by every instance using the database. The lease of a property is the lock
+ * on its row in PROPERTY, which the application never updates, taken by a single statement inside the write
+ * transaction. It is released by the commit or the rollback and never needs a statement of its own.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PropertyLeaseRepository {
+
+    private static final String ACQUIRE =
+            "SELECT ID_PROPERTY FROM PROPERTY " +
+            "   WHERE ID_PROPERTY = ? " +
+            "   FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes the lease of the property until the current transaction ends. Never waits for the lock, since a lock
+     * timeout would also end the transaction.
+     *
+     * @return false when another transaction still holds the lease
+     */
+    public boolean tryAcquire(Long propertyId) {
+        return !jdbcTemplate.queryForList(ACQUIRE, Long.class, propertyId).isEmpty();
+    }
+}
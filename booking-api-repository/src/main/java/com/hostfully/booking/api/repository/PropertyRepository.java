@@ -1,9 +1,17 @@
 package com.hostfully.booking.api.repository;
 
+import com.hostfully.booking.api.entity.BookingStatus;
 import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.repository.projection.PropertyProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +19,33 @@ import java.util.UUID;
 public interface PropertyRepository extends JpaRepository<Property, Long> {
 
     Optional<Property> findByUuid(UUID uuid);
+
+    List<Property> findAllByUuidIn(Collection<UUID> uuids);
+
+    @Query(value = "SELECT p.uuid FROM Property p")
+    List<UUID> findAllUuids();
+
+    @Query(value = "SELECT p.uuid FROM Property p " +
+                    "       WHERE NOT EXISTS (" +
+                    "           SELECT 1 FROM Booking b " +
+                    "               WHERE b.property = p " +
+                    "                 AND b.status IN :bookingStatuses " +
+                    "                 AND b.endAt >= :beginDate " +
+                    "                 AND b.beginAt <= :endDate" +
+                    "       ) " +
+                    "   ORDER BY p.id")
+    List<UUID> findUuidsAvailableBetween(@Param("bookingStatuses") List<BookingStatus> bookingStatuses,
+                                         @Param("beginDate") LocalDate beginDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT p.id AS id, p.uuid AS uuid, p.name AS name, p.description AS description " +
+                    "   FROM Property p " +
+                    "       WHERE p.uuid = :uuid")
+    Optional<PropertyProjection> findProjectionByUuid(@Param("uuid") UUID uuid);
+
+    @Query(value = "SELECT p.id AS id, p.uuid AS uuid, p.name AS name, p.description AS description " +
+                    "   FROM Property p " +
+                    "       WHERE p.id > :afterId " +
+                    "   ORDER BY p.id")
+    List<PropertyProjection> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,46 @@
+package com.hostfully.booking.api.repository.projection;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.DocumentType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A booking with its property and one of its guests. A booking without guests gives a single row with null guest
+ * columns.
+ */
+public interface BookingDetailProjection {
+
+    Long getId();
+
+    UUID getUuid();
+
+    BookingStatus getStatus();
+
+    LocalDate getBeginAt();
+
+    LocalDate getEndAt();
+
+    Long getVersion();
+
+    Long getPropertyId();
+
+    UUID getPropertyUuid();
+
+    String getPropertyName();
+
+    String getPropertyDescription();
+
+    UUID getGuestUuid();
+
+    String getGuestName();
+
+    Integer getGuestAge();
+
+    String getGuestEmail();
+
+    DocumentType getGuestDocumentType();
+
+    String getGuestDocumentNumber();
+}
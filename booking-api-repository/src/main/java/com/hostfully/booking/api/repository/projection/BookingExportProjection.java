@@ -0,0 +1,21 @@
+package com.hostfully.booking.api.repository.projection;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface BookingExportProjection {
+
+    Long getId();
+
+    UUID getUuid();
+
+    UUID getPropertyUuid();
+
+    BookingStatus getStatus();
+
+    LocalDate getBeginAt();
+
+    LocalDate getEndAt();
+}
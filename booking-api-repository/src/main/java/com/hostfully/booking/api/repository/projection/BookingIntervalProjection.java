@@ -0,0 +1,15 @@
+package com.hostfully.booking.api.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface BookingIntervalProjection {
+
+    Long getId();
+
+    UUID getPropertyUuid();
+
+    LocalDate getBeginAt();
+
+    LocalDate getEndAt();
+}
@@ -0,0 +1,18 @@
+package com.hostfully.booking.api.repository.projection;
+
+import com.hostfully.booking.api.entity.DocumentType;
+
+public interface GuestExportProjection {
+
+    Long getBookingId();
+
+    String getName();
+
+    Integer getAge();
+
+    String getEmail();
+
+    DocumentType getDocumentType();
+
+    String getDocumentNumber();
+}
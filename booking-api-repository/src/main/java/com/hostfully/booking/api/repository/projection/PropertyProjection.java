@@ -0,0 +1,14 @@
+package com.hostfully.booking.api.repository.projection;
+
+import java.util.UUID;
+
+public interface PropertyProjection {
+
+    Long getId();
+
+    UUID getUuid();
+
+    String getName();
+
+    String getDescription();
+}
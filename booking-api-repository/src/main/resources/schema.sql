@@ -16,10 +16,15 @@ CREATE TABLE GUEST (
     EMAIL_GUEST VARCHAR(100),
     DOC_TYPE_GUEST VARCHAR(20),
     DOC_NMB_GUEST VARCHAR(100),
+    NAME_NORM_GUEST VARCHAR(100) NOT NULL,
+    EMAIL_NORM_GUEST VARCHAR(100),
 
     CONSTRAINT PK_GUEST PRIMARY KEY(ID_GUEST)
 );
-CREATE SEQUENCE SEQ_GUEST START WITH 1 INCREMENT BY 1 NOCACHE NOCYCLE;
+CREATE SEQUENCE SEQ_GUEST START WITH 1 INCREMENT BY 50 NOCACHE NOCYCLE;
+CREATE INDEX IDX_GUEST_DOCUMENT ON GUEST(DOC_TYPE_GUEST, DOC_NMB_GUEST, ID_GUEST);
+CREATE INDEX IDX_GUEST_EMAIL ON GUEST(EMAIL_NORM_GUEST, NAME_NORM_GUEST, ID_GUEST);
+CREATE INDEX IDX_GUEST_NAME ON GUEST(NAME_NORM_GUEST, ID_GUEST);
 
 CREATE TABLE BOOKING (
     ID_BOOKING NUMBER NOT NULL,
@@ -28,11 +33,16 @@ CREATE TABLE BOOKING (
     ST_BOOKING VARCHAR(20) NOT NULL,
     DT_START DATE NOT NULL,
     DT_END DATE NOT NULL,
+    VERSION_BOOKING NUMBER DEFAULT 0 NOT NULL,
 
     CONSTRAINT PK_BOOKING PRIMARY KEY(ID_BOOKING),
     CONSTRAINT FK_PROPERTY FOREIGN KEY(ID_PROPERTY) REFERENCES PROPERTY(ID_PROPERTY)
 );
-CREATE SEQUENCE SEQ_BOOKING START WITH 1 INCREMENT BY 1 NOCACHE NOCYCLE;
+CREATE SEQUENCE SEQ_BOOKING START WITH 1 INCREMENT BY 50 NOCACHE NOCYCLE;
+CREATE INDEX IDX_BOOKING_PROPERTY_END ON BOOKING(ID_PROPERTY, DT_END);
+CREATE INDEX IDX_BOOKING_END ON BOOKING(DT_END);
+CREATE INDEX IDX_BOOKING_START ON BOOKING(DT_START, ID_BOOKING);
+CREATE INDEX IDX_BOOKING_PROPERTY_START ON BOOKING(ID_PROPERTY, DT_START, ID_BOOKING);
 
 CREATE TABLE BOOKING_GUEST (
     ID_BOOKING NUMBER NOT NULL,
@@ -41,4 +51,17 @@ CREATE TABLE BOOKING_GUEST (
     CONSTRAINT PK_BOOKING_GUEST PRIMARY KEY(ID_BOOKING, ID_GUEST),
     CONSTRAINT FK_BOOKING FOREIGN KEY(ID_BOOKING) REFERENCES BOOKING(ID_BOOKING),
     CONSTRAINT FK_GUEST FOREIGN KEY(ID_GUEST) REFERENCES GUEST(ID_GUEST)
-);
\ No newline at end of file
+);
+CREATE INDEX IDX_BOOKING_GUEST_GUEST ON BOOKING_GUEST(ID_GUEST);
+
+CREATE TABLE BOOKING_NIGHT (
+    ID_PROPERTY NUMBER NOT NULL,
+    NIGHT DATE NOT NULL,
+    ID_BOOKING NUMBER NOT NULL,
+
+    CONSTRAINT PK_BOOKING_NIGHT PRIMARY KEY(ID_PROPERTY, NIGHT),
+    CONSTRAINT FK_NIGHT_PROPERTY FOREIGN KEY(ID_PROPERTY) REFERENCES PROPERTY(ID_PROPERTY),
+    CONSTRAINT FK_NIGHT_BOOKING FOREIGN KEY(ID_BOOKING) REFERENCES BOOKING(ID_BOOKING)
+);
+
+CREATE INDEX IDX_BOOKING_NIGHT_BOOKING ON BOOKING_NIGHT(ID_BOOKING);
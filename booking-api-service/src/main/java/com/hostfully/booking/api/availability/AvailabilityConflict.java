@@ -0,0 +1,14 @@
+package com.hostfully.booking.api.availability;
+
+import java.util.List;
+
+/**
+ * Ranges that prevent a booking from being saved, with the closest free windows of the same length
+ * before and after the requested dates. {@code previousWindow} is null when there is no free window
+ * between today and the requested dates.
+ */
+public record AvailabilityConflict(
+        List<OccupiedRange> conflicts,
+        FreeWindow previousWindow,
+        FreeWindow nextWindow
+) { }
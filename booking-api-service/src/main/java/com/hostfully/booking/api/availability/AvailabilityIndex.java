@@ -0,0 +1,293 @@
+package com.hostfully.booking.api.availability;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.BookingIntervalProjection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory availability of every property, kept in sync with the BOOKED and BLOCKED rows of BOOKING.
+ * Calendars are loaded at startup when preload is enabled, otherwise on the first lookup of each property,
+ * and are updated after commit through {@link BookingChangedEvent}. In the QUERY mode nothing is kept in memory,
+ * every lookup reads the committed rows. The calendars only see the bookings written by this instance, so they are
+ * exact for a single instance and would stay stale for the life of the process when several instances share the
+ * database. With cluster leases enabled, nothing is kept in memory either, reads and writes use the committed rows
+ * whatever the mode.
+ */
+@Slf4j
+@Component
+public class AvailabilityIndex {
+
+    public static final List<BookingStatus> OCCUPYING_STATUSES = List.of(BookingStatus.BOOKED, BookingStatus.BLOCKED);
+
+    private final BookingRepository repository;
+    private final PropertyRepository propertyRepository;
+    private final AvailabilityMode mode;
+    private final boolean preload;
+    private final boolean leased;
+
+    private final Map<UUID, PropertyCalendar> calendars = new ConcurrentHashMap<>();
+    private final Queue<BookingChangedEvent> changedWhileLoading = new ArrayDeque<>();
+    private volatile boolean fullyLoaded;
+    private volatile boolean loading;
+
+    public AvailabilityIndex(BookingRepository repository, PropertyRepository propertyRepository,
+                             AvailabilityMode mode, boolean preload) {
+        this(repository, propertyRepository, mode, preload, false);
+    }
+
+    @Autowired
+    public AvailabilityIndex(BookingRepository repository,
+                             PropertyRepository propertyRepository,
+                             @Value("${booking.availability.mode:INDEX}") AvailabilityMode mode,
+                             @Value("${booking.availability.preload:false}") boolean preload,
+                             @Value("${booking.lease.enabled:false}") boolean leased) {
+        this.repository = repository;
+        this.propertyRepository = propertyRepository;
+        this.mode = mode;
+        this.preload = preload;
+        this.leased = leased;
+    }
+
+    public boolean hasOverlappingDates(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) {
+        return switch (mode) {
+            case QUERY -> queryOverlap(bookingId, propertyUuid, beginDate, endDate);
+            case INDEX, NIGHTS -> indexOverlap(bookingId, propertyUuid, beginDate, endDate);
+            case VERIFY -> verifyOverlap(bookingId, propertyUuid, beginDate, endDate);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (preload && keepsCalendars()) {
+            loadAll();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!keepsCalendars()) {
+            return;
+        }
+        if (loading) {
+            synchronized (changedWhileLoading) {
+                // Checked again under the lock, the load may have replayed the queue in the meantime
+                if (loading) {
+                    changedWhileLoading.add(event);
+                    calendars.computeIfPresent(event.propertyUuid(), (uuid, calendar) -> apply(event, calendar));
+                    return;
+                }
+            }
+        }
+
+        // Without a full load, a calendar that is not cached yet will be read from the committed rows on first use
+        if (fullyLoaded) {
+            calendars.compute(event.propertyUuid(), (uuid, calendar) -> apply(event, calendar));
+        } else {
+            calendars.computeIfPresent(event.propertyUuid(), (uuid, calendar) -> apply(event, calendar));
+        }
+    }
+
+    public void invalidate(UUID propertyUuid) {
+        calendars.remove(propertyUuid);
+    }
+
+    public PropertyCalendar calendarOf(UUID propertyUuid) {
+        if (!keepsCalendars()) {
+            return loadCalendar(propertyUuid);
+        }
+        if (fullyLoaded) {
+            return calendars.computeIfAbsent(propertyUuid, uuid -> new PropertyCalendar());
+        }
+        return calendars.computeIfAbsent(propertyUuid, this::loadCalendar);
+    }
+
+    public boolean isNightsMode() {
+        return mode == AvailabilityMode.NIGHTS;
+    }
+
+    /**
+     * Ranges overlapping the dates and the nearest free windows of the same length around them, or empty when the
+     * dates are free. Outside the INDEX mode the calendar is read from the database only when there is a conflict.
+     * In the NIGHTS mode nothing is read before the write, the conflict is described once the insert of the nights fails.
+     * Under a cluster lease the INDEX mode asks the database like the QUERY mode, since other instances write too.
+     */
+    public Optional<AvailabilityConflict> findConflict(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) {
+        PropertyCalendar calendar;
+        if (mode == AvailabilityMode.NIGHTS) {
+            return Optional.empty();
+        } else if (mode == AvailabilityMode.INDEX && !leased) {
+            calendar = calendarOf(propertyUuid);
+        } else if (mode == AvailabilityMode.INDEX
+                ? queryOverlap(bookingId, propertyUuid, beginDate, endDate)
+                : hasOverlappingDates(bookingId, propertyUuid, beginDate, endDate)) {
+            calendar = mode == AvailabilityMode.VERIFY ? calendarOf(propertyUuid) : loadCalendar(propertyUuid);
+        } else {
+            return Optional.empty();
+        }
+
+        var conflict = describeConflict(calendar, bookingId, beginDate, endDate);
+        if (conflict.conflicts().isEmpty() && mode == AvailabilityMode.INDEX) {
+            return Optional.empty();
+        }
+        return Optional.of(conflict);
+    }
+
+    /**
+     * Describes a conflict already detected by the database. The calendar is read from the current transaction
+     * and not cached, since it may hold rows about to be rolled back.
+     */
+    public AvailabilityConflict describeConflict(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) {
+        return describeConflict(loadCalendar(propertyUuid), bookingId, beginDate, endDate);
+    }
+
+    /**
+     * Ranges of the property overlapping the dates, read from the database on every call and never cached,
+     * so the calendar can take ranges that are not persisted yet.
+     */
+    public PropertyCalendar readCalendar(Long propertyId, LocalDate beginDate, LocalDate endDate) {
+        var calendar = new PropertyCalendar();
+        repository.findIntervalsBetween(propertyId, OCCUPYING_STATUSES, beginDate, endDate)
+                .forEach(interval -> calendar.put(toRange(interval)));
+        return calendar;
+    }
+
+    public FreeWindow nextFreeWindow(UUID propertyUuid, LocalDate from, int nights) {
+        return FreeWindow.of(calendarOf(propertyUuid).nextFreeStart(0L, from.toEpochDay(), nights), nights);
+    }
+
+    /**
+     * Evaluates every property against the same range in a single parallel pass over the calendars, or with a single
+     * NOT EXISTS query when no calendar is kept in memory.
+     */
+    public List<UUID> findAvailableProperties(LocalDate beginDate, LocalDate endDate) {
+        if (!keepsCalendars()) {
+            return propertyRepository.findUuidsAvailableBetween(OCCUPYING_STATUSES, beginDate, endDate);
+        }
+        if (!fullyLoaded) {
+            loadAll();
+        }
+
+        var begin = beginDate.toEpochDay();
+        var end = endDate.toEpochDay();
+        return calendars.entrySet().parallelStream()
+                .filter(entry -> !entry.getValue().hasOverlap(0L, begin, end))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public Set<UUID> propertyUuids() {
+        if (!keepsCalendars()) {
+            return Set.copyOf(propertyRepository.findAllUuids());
+        }
+        if (!fullyLoaded) {
+            loadAll();
+        }
+        return Collections.unmodifiableSet(calendars.keySet());
+    }
+
+    public synchronized void loadAll() {
+        if (fullyLoaded) {
+            return;
+        }
+
+        loading = true;
+        var intervals = repository.findAllIntervals(OCCUPYING_STATUSES);
+        var loaded = new ConcurrentHashMap<UUID, PropertyCalendar>();
+        propertyRepository.findAllUuids().forEach(uuid -> loaded.put(uuid, new PropertyCalendar()));
+        intervals.forEach(interval -> loaded
+                .computeIfAbsent(interval.getPropertyUuid(), uuid -> new PropertyCalendar())
+                .put(toRange(interval)));
+
+        // Calendars already cached are kept in sync by the events, so they are at least as fresh as the bulk read
+        loaded.forEach(calendars::putIfAbsent);
+
+        // The queue is replayed in order before any newer event is applied, so a replayed event never undoes a newer one
+        synchronized (changedWhileLoading) {
+            BookingChangedEvent event;
+            while ((event = changedWhileLoading.poll()) != null) {
+                var changed = event;
+                calendars.compute(changed.propertyUuid(), (uuid, calendar) -> apply(changed, calendar));
+            }
+            fullyLoaded = true;
+            loading = false;
+        }
+        log.info("Availability index loaded with {} ranges of {} properties", intervals.size(), loaded.size());
+    }
+
+    private boolean keepsCalendars() {
+        return mode != AvailabilityMode.QUERY && !leased;
+    }
+
+    private boolean indexOverlap(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) {
+        return calendarOf(propertyUuid)
+                .hasOverlap(bookingId, beginDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    private boolean queryOverlap(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) {
+        return repository.hasOverlappingDates(bookingId, propertyUuid, OCCUPYING_STATUSES, beginDate, endDate);
+    }
+
+    private boolean verifyOverlap(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) {
+        var fromIndex = indexOverlap(bookingId, propertyUuid, beginDate, endDate);
+        var fromQuery = queryOverlap(bookingId, propertyUuid, beginDate, endDate);
+        if (fromIndex != fromQuery) {
+            log.warn("Availability index diverged from the database for property {} between {} and {} " +
+                    "(index: {}, query: {}). Reloading the property calendar", propertyUuid, beginDate, endDate, fromIndex, fromQuery);
+            calendars.put(propertyUuid, loadCalendar(propertyUuid));
+        }
+        return fromQuery;
+    }
+
+    private static AvailabilityConflict describeConflict(PropertyCalendar calendar, Long bookingId,
+                                                        LocalDate beginDate, LocalDate endDate) {
+        var begin = beginDate.toEpochDay();
+        var end = endDate.toEpochDay();
+        var span = end - begin;
+        var previousStart = calendar.previousFreeStart(bookingId, begin - 1, span, LocalDate.now().toEpochDay());
+        var nextStart = calendar.nextFreeStart(bookingId, begin + 1, span);
+        return new AvailabilityConflict(calendar.findOverlaps(bookingId, begin, end),
+                previousStart == Long.MIN_VALUE ? null : FreeWindow.of(previousStart, span),
+                FreeWindow.of(nextStart, span));
+    }
+
+    private static PropertyCalendar apply(BookingChangedEvent event, PropertyCalendar calendar) {
+        var target = calendar != null ? calendar : new PropertyCalendar();
+        if (!event.removed() && OCCUPYING_STATUSES.contains(event.status())) {
+            target.put(OccupiedRange.of(event.bookingId(), event.beginAt(), event.endAt()));
+        } else {
+            target.remove(event.bookingId());
+        }
+        return target;
+    }
+
+    private PropertyCalendar loadCalendar(UUID propertyUuid) {
+        var calendar = new PropertyCalendar();
+        repository.findIntervalsByProperty(propertyUuid, OCCUPYING_STATUSES)
+                .forEach(interval -> calendar.put(toRange(interval)));
+        return calendar;
+    }
+
+    private static OccupiedRange toRange(BookingIntervalProjection interval) {
+        return OccupiedRange.of(interval.getId(), interval.getBeginAt(), interval.getEndAt());
+    }
+}
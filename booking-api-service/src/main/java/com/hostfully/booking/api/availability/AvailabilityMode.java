@@ -0,0 +1,12 @@
+package com.hostfully.booking.api.availability;
+
+public enum AvailabilityMode {
+    /** Overlaps are answered by the in-memory index only */
+    INDEX,
+    /** Overlaps are answered by the hasOverlappingDates query only */
+    QUERY,
+    /** Both are evaluated, mismatches are logged and the query result wins */
+    VERIFY,
+    /** Overlaps are rejected by the primary key of BOOKING_NIGHT when the nights are written, the index only serves reads */
+    NIGHTS
+}
@@ -0,0 +1,75 @@
+package com.hostfully.booking.api.availability;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.exception.BookingConflictException;
+import com.hostfully.booking.api.repository.BookingNightRepository;
+import com.hostfully.booking.api.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps BOOKING_NIGHT in step with the bookings when the availability mode is NIGHTS, and does nothing otherwise.
+ * Must run in the transaction saving the booking, so a rejected insert rolls the booking back with it.
+ */
+@Slf4j
+@Component
+public class BookingNightStore {
+
+    private final BookingNightRepository nightRepository;
+    private final BookingRepository bookingRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final boolean enabled;
+
+    public BookingNightStore(BookingNightRepository nightRepository,
+                             BookingRepository bookingRepository,
+                             AvailabilityIndex availabilityIndex,
+                             @Value("${booking.availability.mode:INDEX}") AvailabilityMode mode) {
+        this.nightRepository = nightRepository;
+        this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.enabled = mode == AvailabilityMode.NIGHTS;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (enabled && nightRepository.isEmpty()) {
+            var statuses = AvailabilityIndex.OCCUPYING_STATUSES.stream()
+                    .map(status -> String.valueOf(status.ordinal()))
+                    .toList();
+            log.info("Booking nights backfilled with {} nights", nightRepository.backfill(statuses));
+        }
+    }
+
+    /**
+     * Replaces the nights of a saved booking with the ones of its current dates and status.
+     */
+    public void store(Booking booking) throws BookingConflictException {
+        if (!enabled) {
+            return;
+        }
+
+        // The nights reference the booking, so its row must reach the database first
+        bookingRepository.flush();
+        nightRepository.deleteNights(booking.getId());
+        if (!AvailabilityIndex.OCCUPYING_STATUSES.contains(booking.getStatus())) {
+            return;
+        }
+
+        try {
+            nightRepository.insertNights(booking.getId(), booking.getProperty().getId(), booking.getBeginAt(), booking.getEndAt());
+        } catch (DuplicateKeyException ex) {
+            var propertyUuid = booking.getProperty().getUuid();
+            throw new BookingConflictException(BookingConflictException.OVERLAPPING_DATES, availabilityIndex.describeConflict(booking.getId(), propertyUuid, booking.getBeginAt(), booking.getEndAt()));
+        }
+    }
+
+    public void remove(Booking booking) {
+        if (enabled) {
+            nightRepository.deleteNights(booking.getId());
+        }
+    }
+}
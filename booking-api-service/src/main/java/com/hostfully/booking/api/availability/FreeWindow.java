@@ -0,0 +1,10 @@
+package com.hostfully.booking.api.availability;
+
+import java.time.LocalDate;
+
+public record FreeWindow(LocalDate beginAt, LocalDate endAt) {
+
+    static FreeWindow of(long beginDay, long span) {
+        return new FreeWindow(LocalDate.ofEpochDay(beginDay), LocalDate.ofEpochDay(beginDay + span));
+    }
+}
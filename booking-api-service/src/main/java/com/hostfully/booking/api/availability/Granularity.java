@@ -0,0 +1,20 @@
+package com.hostfully.booking.api.availability;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum Granularity {
+    DAY, WEEK, MONTH;
+
+    /**
+     * First day of the bucket the date belongs to. Weeks start on Monday.
+     */
+    public LocalDate bucketOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
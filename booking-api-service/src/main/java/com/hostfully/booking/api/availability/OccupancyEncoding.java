@@ -0,0 +1,8 @@
+package com.hostfully.booking.api.availability;
+
+public enum OccupancyEncoding {
+    /** Occupied runs as [offset, length] pairs relative to the first day of the window */
+    RLE,
+    /** Base64 of the little-endian bitset of occupied days, bit 0 being the first day of the window */
+    BITSET
+}
@@ -0,0 +1,30 @@
+package com.hostfully.booking.api.availability;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Closed range of epoch days occupied by a BOOKED or BLOCKED booking.
+ */
+public record OccupiedRange(long bookingId, long beginDay, long endDay) {
+
+    static final Comparator<OccupiedRange> ORDER = Comparator
+            .comparingLong(OccupiedRange::beginDay)
+            .thenComparingLong(OccupiedRange::bookingId);
+
+    public static OccupiedRange of(long bookingId, LocalDate beginAt, LocalDate endAt) {
+        return new OccupiedRange(bookingId, beginAt.toEpochDay(), endAt.toEpochDay());
+    }
+
+    public boolean overlaps(long begin, long end) {
+        return beginDay <= end && endDay >= begin;
+    }
+
+    public LocalDate beginAt() {
+        return LocalDate.ofEpochDay(beginDay);
+    }
+
+    public LocalDate endAt() {
+        return LocalDate.ofEpochDay(endDay);
+    }
+}
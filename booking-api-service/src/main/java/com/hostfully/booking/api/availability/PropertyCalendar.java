@@ -0,0 +1,153 @@
+package com.hostfully.booking.api.availability;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Occupied ranges of a single property, ordered by the first day.
+ * The longest range seen bounds how far back a lookup must scan, so an overlap
+ * check only visits the ranges starting in [begin - longest, end].
+ */
+public class PropertyCalendar {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableSet<OccupiedRange> ranges = new TreeSet<>(OccupiedRange.ORDER);
+    private final Map<Long, OccupiedRange> byBookingId = new HashMap<>();
+    private long longestRange;
+
+    public void put(OccupiedRange range) {
+        lock.writeLock().lock();
+        try {
+            var previous = byBookingId.put(range.bookingId(), range);
+            if (previous != null) {
+                ranges.remove(previous);
+            }
+            ranges.add(range);
+            longestRange = Math.max(longestRange, range.endDay() - range.beginDay());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long bookingId) {
+        lock.writeLock().lock();
+        try {
+            var previous = byBookingId.remove(bookingId);
+            if (previous != null) {
+                ranges.remove(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hasOverlap(long ignoredBookingId, long begin, long end) {
+        lock.readLock().lock();
+        try {
+            for (var range : candidates(begin, end)) {
+                if (range.bookingId() != ignoredBookingId && range.overlaps(begin, end)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<OccupiedRange> findOverlaps(long ignoredBookingId, long begin, long end) {
+        lock.readLock().lock();
+        try {
+            return overlapsOf(ignoredBookingId, begin, end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * First day on or after {@code from} where a range of {@code span} days after it is free.
+     */
+    public long nextFreeStart(long ignoredBookingId, long from, long span) {
+        lock.readLock().lock();
+        try {
+            var start = from;
+            var overlaps = overlapsOf(ignoredBookingId, start, start + span);
+            while (!overlaps.isEmpty()) {
+                start = overlaps.stream().mapToLong(OccupiedRange::endDay).max().orElseThrow() + 1;
+                overlaps = overlapsOf(ignoredBookingId, start, start + span);
+            }
+            return start;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Last day on or before {@code from}, and not before {@code lowerBound}, where a range of {@code span} days
+     * after it is free. Returns {@link Long#MIN_VALUE} when there is no such day.
+     */
+    public long previousFreeStart(long ignoredBookingId, long from, long span, long lowerBound) {
+        lock.readLock().lock();
+        try {
+            var start = from;
+            var overlaps = overlapsOf(ignoredBookingId, start, start + span);
+            while (!overlaps.isEmpty() && start >= lowerBound) {
+                start = overlaps.stream().mapToLong(OccupiedRange::beginDay).min().orElseThrow() - span - 1;
+                overlaps = overlapsOf(ignoredBookingId, start, start + span);
+            }
+            return start >= lowerBound ? start : Long.MIN_VALUE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Occupied days between begin and end, bit 0 being the begin day.
+     */
+    public BitSet occupancy(long begin, long end) {
+        lock.readLock().lock();
+        try {
+            var days = new BitSet((int) (end - begin + 1));
+            for (var range : candidates(begin, end)) {
+                if (range.overlaps(begin, end)) {
+                    days.set((int) (Math.max(range.beginDay(), begin) - begin),
+                            (int) (Math.min(range.endDay(), end) - begin + 1));
+                }
+            }
+            return days;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranges.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<OccupiedRange> overlapsOf(long ignoredBookingId, long begin, long end) {
+        var overlaps = new ArrayList<OccupiedRange>();
+        for (var range : candidates(begin, end)) {
+            if (range.bookingId() != ignoredBookingId && range.overlaps(begin, end)) {
+                overlaps.add(range);
+            }
+        }
+        return overlaps;
+    }
+
+    private NavigableSet<OccupiedRange> candidates(long begin, long end) {
+        return ranges.subSet(new OccupiedRange(Long.MIN_VALUE, begin - longestRange, 0), true,
+                new OccupiedRange(Long.MAX_VALUE, end, 0), true);
+    }
+}
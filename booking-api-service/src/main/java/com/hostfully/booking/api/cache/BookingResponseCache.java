@@ -0,0 +1,143 @@
+package com.hostfully.booking.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.event.GuestsChangedEvent;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.projection.BookingDetailProjection;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.GuestResource;
+import com.hostfully.booking.api.resource.PropertyResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Serialized bookings by UUID and response format, so repeated reads are answered without loading, mapping or
+ * serializing again. A miss reads the booking, its property and its guests as projection rows of a single query,
+ * so no entity is loaded. The entries of every format are dropped after commit of any change to the booking. The
+ * load runs inside the computation of the entry, so an invalidation arriving while a booking is loaded waits for it
+ * and then drops the result. Changes saved by another instance raise no local event, so a hit is only served after
+ * reading the current version of the booking, and an entry of an older version is rendered again.
+ */
+@Component
+public class BookingResponseCache {
+
+    public static final String NAME = "booking-response";
+
+    private final BookingRepository repository;
+    private final Map<ResponseFormat, ObjectWriter> writers = new EnumMap<>(ResponseFormat.class);
+    private final Cache<Key, CachedBooking> cache;
+
+    public BookingResponseCache(BookingRepository repository,
+                                Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${booking.response-cache.max-size:100000}") long maxSize,
+                                @Value("${booking.response-cache.ttl:PT1H}") Duration ttl) {
+        this.repository = repository;
+        for (var format : ResponseFormat.values()) {
+            // Same modules and features as the message converters, only the encoding changes
+            writers.put(format, objectMapperBuilder.factory(format.newFactory()).build().writerFor(BookingResponseResource.class));
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, NAME));
+    }
+
+    public Optional<CachedBooking> find(UUID uuid) {
+        return find(uuid, ResponseFormat.JSON);
+    }
+
+    public Optional<CachedBooking> find(UUID uuid, ResponseFormat format) {
+        var cached = cache.getIfPresent(new Key(uuid, format));
+        if (cached != null) {
+            if (repository.findVersionByUuid(uuid).filter(cached.version()::equals).isPresent()) {
+                return Optional.of(cached);
+            }
+            cache.asMap().remove(new Key(uuid, format), cached);
+        }
+        return Optional.ofNullable(cache.get(new Key(uuid, format), key -> {
+            var rows = repository.findDetailRowsByUuid(key.uuid());
+            return rows.isEmpty() ? null : render(rows, format);
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.bookingUuid());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestsChanged(GuestsChangedEvent event) {
+        event.bookingUuids().forEach(this::invalidate);
+    }
+
+    public void invalidate(UUID uuid) {
+        cache.invalidateAll(Arrays.stream(ResponseFormat.values()).map(format -> new Key(uuid, format)).toList());
+    }
+
+    private CachedBooking render(List<BookingDetailProjection> rows, ResponseFormat format) {
+        var booking = rows.get(0);
+        try {
+            var body = writers.get(format).writeValueAsBytes(toResource(rows));
+            return new CachedBooking(body, booking.getVersion(), booking.getStatus());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize the Booking " + booking.getUuid(), ex);
+        }
+    }
+
+    static BookingResponseResource toResource(List<BookingDetailProjection> rows) {
+        var booking = rows.get(0);
+        var property = new PropertyResource();
+        property.setId(booking.getPropertyId());
+        property.setUuid(booking.getPropertyUuid());
+        property.setName(booking.getPropertyName());
+        property.setDescription(booking.getPropertyDescription());
+
+        var resource = new BookingResponseResource();
+        resource.setUuid(booking.getUuid().toString());
+        resource.setProperty(property);
+        resource.setStatus(booking.getStatus().name());
+        resource.setBeginAt(booking.getBeginAt());
+        resource.setEndAt(booking.getEndAt());
+        resource.setVersion(booking.getVersion());
+        resource.setGuests(rows.stream()
+                .filter(row -> row.getGuestName() != null)
+                .map(BookingResponseCache::toGuest)
+                .toList());
+        return resource;
+    }
+
+    private static GuestResource toGuest(BookingDetailProjection row) {
+        var guest = new GuestResource();
+        guest.setUuid(row.getGuestUuid().toString());
+        guest.setName(row.getGuestName());
+        guest.setAge(row.getGuestAge());
+        guest.setEmail(row.getGuestEmail());
+        guest.setDocumentType(row.getGuestDocumentType() == null ? null : row.getGuestDocumentType().name());
+        guest.setDocumentNumber(row.getGuestDocumentNumber());
+        return guest;
+    }
+
+    private record Key(UUID uuid, ResponseFormat format) {
+    }
+}
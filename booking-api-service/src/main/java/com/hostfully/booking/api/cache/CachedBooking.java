@@ -0,0 +1,11 @@
+package com.hostfully.booking.api.cache;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.resource.ResponseFormat;
+
+/**
+ * A {@link com.hostfully.booking.api.resource.BookingResponseResource} as written to the client in one of the
+ * {@link ResponseFormat}s, with the version it was rendered from.
+ */
+public record CachedBooking(byte[] body, Long version, BookingStatus status) {
+}
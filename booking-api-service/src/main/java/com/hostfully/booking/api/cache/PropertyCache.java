@@ -0,0 +1,72 @@
+package com.hostfully.booking.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Properties by UUID, bounded by size and time to live with the W-TinyLFU eviction of Caffeine. The cached
+ * entities are detached and only used as references of new bookings, so they must not be modified.
+ * Unknown UUIDs are not cached, and hits, misses and evictions are published as the "property" cache metrics.
+ */
+@Component
+public class PropertyCache {
+
+    public static final String NAME = "property";
+
+    private final PropertyRepository repository;
+    private final Cache<UUID, Property> cache;
+
+    public PropertyCache(PropertyRepository repository,
+                         ObjectProvider<MeterRegistry> meterRegistry,
+                         @Value("${booking.property-cache.max-size:10000}") long maxSize,
+                         @Value("${booking.property-cache.ttl:PT10M}") Duration ttl) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, NAME));
+    }
+
+    public Optional<Property> find(UUID uuid) {
+        return Optional.ofNullable(cache.get(uuid, key -> repository.findByUuid(key).orElse(null)));
+    }
+
+    /**
+     * Properties found among the UUIDs, the missing ones read with a single query.
+     */
+    public Map<UUID, Property> findAll(Collection<UUID> uuids) {
+        return cache.getAll(uuids, missing -> repository.findAllByUuidIn(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(Property::getUuid, Function.identity())));
+    }
+
+    public void invalidate(UUID uuid) {
+        cache.invalidate(uuid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,9 @@
+package com.hostfully.booking.api.calendar;
+
+import java.time.Instant;
+
+/**
+ * Rendered iCalendar of a property, with the validators sent to the pollers.
+ */
+public record CalendarFeed(byte[] content, String eTag, Instant lastModified) {
+}
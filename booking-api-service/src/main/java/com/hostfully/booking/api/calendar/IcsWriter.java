@@ -0,0 +1,77 @@
+package com.hostfully.booking.api.calendar;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.repository.projection.BookingExportProjection;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Renders the occupied ranges of a property as an RFC 5545 calendar of all-day events. Bookings are stored as
+ * closed intervals, so the exclusive DTEND of an event is the day after the final date.
+ */
+public final class IcsWriter {
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private IcsWriter() {
+    }
+
+    public static byte[] write(String calendarName, List<BookingExportProjection> entries, Instant stamp) {
+        var ics = new StringBuilder(256 + entries.size() * 160);
+        line(ics, "BEGIN:VCALENDAR");
+        line(ics, "VERSION:2.0");
+        line(ics, "PRODID:-//Hostfully//Booking API//EN");
+        line(ics, "CALSCALE:GREGORIAN");
+        line(ics, "METHOD:PUBLISH");
+        line(ics, "X-WR-CALNAME:" + escape(calendarName));
+        for (var entry : entries) {
+            line(ics, "BEGIN:VEVENT");
+            line(ics, "UID:" + entry.getUuid() + "@booking-api");
+            line(ics, "DTSTAMP:" + TIMESTAMP.format(stamp));
+            line(ics, "DTSTART;VALUE=DATE:" + DATE.format(entry.getBeginAt()));
+            line(ics, "DTEND;VALUE=DATE:" + DATE.format(entry.getEndAt().plusDays(1)));
+            line(ics, "SUMMARY:" + (entry.getStatus() == BookingStatus.BLOCKED ? "Blocked" : "Booked"));
+            line(ics, "TRANSP:OPAQUE");
+            line(ics, "END:VEVENT");
+        }
+        line(ics, "END:VCALENDAR");
+        return ics.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * Folds lines longer than 75 octets, never splitting a multi-byte character.
+     */
+    private static void line(StringBuilder ics, String content) {
+        var octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            var codePoint = content.codePointAt(i);
+            var size = String.valueOf(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+            if (octets + size > MAX_LINE_OCTETS) {
+                ics.append(CRLF).append(' ');
+                octets = 1;
+            }
+            ics.appendCodePoint(codePoint);
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        ics.append(CRLF);
+    }
+}
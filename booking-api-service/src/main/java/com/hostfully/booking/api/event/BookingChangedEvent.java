@@ -0,0 +1,31 @@
+package com.hostfully.booking.api.event;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record BookingChangedEvent(
+        Long bookingId,
+        UUID bookingUuid,
+        UUID propertyUuid,
+        BookingStatus status,
+        LocalDate beginAt,
+        LocalDate endAt,
+        boolean removed
+) {
+
+    public static BookingChangedEvent saved(Booking booking) {
+        return of(booking, false);
+    }
+
+    public static BookingChangedEvent removed(Booking booking) {
+        return of(booking, true);
+    }
+
+    private static BookingChangedEvent of(Booking booking, boolean removed) {
+        return new BookingChangedEvent(booking.getId(), booking.getUuid(), booking.getProperty().getUuid(),
+                booking.getStatus(), booking.getBeginAt(), booking.getEndAt(), removed);
+    }
+}
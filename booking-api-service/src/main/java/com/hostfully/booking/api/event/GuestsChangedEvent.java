@@ -0,0 +1,10 @@
+package com.hostfully.booking.api.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Guests updated through one booking and shared with other bookings, whose representations changed as well.
+ */
+public record GuestsChangedEvent(List<UUID> bookingUuids) {
+}
@@ -0,0 +1,17 @@
+package com.hostfully.booking.api.exception;
+
+import com.hostfully.booking.api.availability.AvailabilityConflict;
+import lombok.Getter;
+
+@Getter
+public class BookingConflictException extends BusinessException {
+
+    public static final String OVERLAPPING_DATES = "Error on saving Booking. The dates selected overlaps another existing booking";
+
+    private final transient AvailabilityConflict conflict;
+
+    public BookingConflictException(String message, AvailabilityConflict conflict) {
+        super(message);
+        this.conflict = conflict;
+    }
+}
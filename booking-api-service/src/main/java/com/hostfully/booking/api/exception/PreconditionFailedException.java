@@ -0,0 +1,10 @@
+package com.hostfully.booking.api.exception;
+
+public class PreconditionFailedException extends BusinessException {
+
+    public static final String STALE_BOOKING = "The Booking was modified by another request. Reload it and try again";
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -1,64 +1,178 @@
 package com.hostfully.booking.api.helper;
 
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.availability.BookingNightStore;
 import com.hostfully.booking.api.entity.Booking;
 import com.hostfully.booking.api.entity.BookingStatus;
 import com.hostfully.booking.api.entity.Guest;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.exception.BookingConflictException;
 import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ObjectNotFoundException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.exception.PreconditionFailedException;
+import com.hostfully.booking.api.mapper.GuestMapper;
 import com.hostfully.booking.api.repository.BookingRepository;
 import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.GuestResource;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public class BookingHelper {
 
-    private final ModelMapper mapper;
+    private final GuestMapper guestMapper;
     private final BookingRepository repository;
+    private final AvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingNightStore nightStore;
 
     public void validateOverlappedDates(Long bookingId, UUID propertyUuid, LocalDate beginDate, LocalDate endDate) throws BusinessException {
-        if (repository.hasOverlappingDates(bookingId, propertyUuid,
-                Arrays.asList(BookingStatus.BOOKED, BookingStatus.BLOCKED), beginDate, endDate)) {
+        var conflict = availabilityIndex.findConflict(bookingId, propertyUuid, beginDate, endDate);
+        if (conflict.isPresent()) {
+            throw new BookingConflictException(BookingConflictException.OVERLAPPING_DATES, conflict.get());
+        }
+    }
 
-            throw new BusinessException("Error on saving Booking. The dates selected overlaps another existing booking");
+    /**
+     * Compares the version sent by the client, usually from If-Match, with the loaded one. A null version skips the
+     * check, and the version column still rejects a concurrent write committed after the booking was loaded.
+     */
+    public void validateVersion(Booking booking, Long expectedVersion) throws PreconditionFailedException {
+        if (expectedVersion != null && !expectedVersion.equals(booking.getVersion())) {
+            throw new PreconditionFailedException(PreconditionFailedException.STALE_BOOKING);
         }
     }
 
+    /**
+     * Booking to be changed, with its property and guests already loaded, so it can be used after the query without
+     * a session.
+     */
     public Booking findBookingOrElseThrow(String bookingUuid) throws ParameterValidationException {
+        return repository.findDetailedByUuid(parseBookingUuid(bookingUuid))
+                .orElseThrow(() -> new ObjectNotFoundException(Booking.class));
+    }
+
+    public UUID parseBookingUuid(String bookingUuid) throws ParameterValidationException {
         try {
             var uuid = Optional.ofNullable(bookingUuid)
                     .orElseThrow(() -> new ParameterValidationException("The Booking ID must not be NULL or EMPTY"));
 
-            return repository.findByUuid(UUID.fromString(uuid))
-                    .orElseThrow(() -> new ObjectNotFoundException(Booking.class));
+            return UUID.fromString(uuid);
         } catch (IllegalArgumentException ex) {
             throw new ParameterValidationException(ex.getMessage());
         }
     }
 
+    public void storeNights(Booking booking) throws BookingConflictException {
+        nightStore.store(booking);
+    }
+
+    public void removeNights(Booking booking) {
+        nightStore.remove(booking);
+    }
+
+    public void publishSaved(Booking booking) {
+        eventPublisher.publishEvent(BookingChangedEvent.saved(booking));
+    }
+
+    public void publishRemoved(Booking booking) {
+        eventPublisher.publishEvent(BookingChangedEvent.removed(booking));
+    }
+
+    /**
+     * Copies the dates and, for bookings, reconciles the guests with the loaded collection instead of replacing it.
+     * A guest sent with the UUID of a current guest, or else with the same document, updates that guest in place,
+     * any other one is added and the current guests left unmatched are dropped. Hibernate then writes only the
+     * guests that changed, and leaves BOOKING_GUEST untouched when the same guests are sent again.
+     */
     public Booking mergeEntityToUpdate(BookingRequestResource resource, Booking entity) {
+        return mergeEntityToUpdate(resource, entity, Set.of());
+    }
+
+    /**
+     * Same as {@link #mergeEntityToUpdate(BookingRequestResource, Booking)}, except that a changed guest also on
+     * another booking is replaced by a new guest of this booking, leaving the shared row as it is.
+     */
+    public Booking mergeEntityToUpdate(BookingRequestResource resource, Booking entity, Set<Long> sharedGuestIds) {
         entity.setBeginAt(resource.getBeginAt());
         entity.setEndAt(resource.getEndAt());
         if (isBooking(entity.getStatus())) {
-            entity.setGuests(resource.getGuests().stream()
-                    .map(guest -> mapper.map(guest, Guest.class))
-                    .collect(Collectors.toCollection(ArrayList::new)));
+            mergeGuests(entity, resource.getGuests(), sharedGuestIds);
         }
 
         return entity;
     }
 
+    private void mergeGuests(Booking entity, List<GuestResource> resources, Set<Long> sharedGuestIds) {
+        if (entity.getGuests() == null) {
+            entity.setGuests(new ArrayList<>());
+        }
+        var unmatched = new ArrayList<>(entity.getGuests());
+        var added = new ArrayList<Guest>();
+        var replaced = new ArrayList<Guest>();
+        for (var resource : resources) {
+            var index = indexOfSameGuest(unmatched, resource);
+            if (index < 0) {
+                added.add(guestMapper.toEntity(resource));
+                continue;
+            }
+            var guest = unmatched.remove(index);
+            if (!sharedGuestIds.contains(guest.getId())) {
+                guestMapper.updateEntity(resource, guest);
+            } else if (!hasSameFields(guest, resource)) {
+                replaced.add(guest);
+                added.add(guestMapper.toEntity(resource));
+            }
+        }
+        unmatched.addAll(replaced);
+
+        if (!unmatched.isEmpty()) {
+            entity.getGuests().removeIf(guest -> unmatched.stream().anyMatch(removed -> removed == guest));
+        }
+        if (!added.isEmpty()) {
+            entity.getGuests().addAll(added);
+        }
+    }
+
+    private static int indexOfSameGuest(List<Guest> guests, GuestResource resource) {
+        for (int i = 0; i < guests.size(); i++) {
+            if (isSameGuest(guests.get(i), resource)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean hasSameFields(Guest guest, GuestResource resource) {
+        return Objects.equals(guest.getName(), resource.getName())
+                && Objects.equals(guest.getAge(), resource.getAge())
+                && Objects.equals(guest.getEmail(), resource.getEmail())
+                && Objects.equals(guest.getDocumentType() == null ? null : guest.getDocumentType().name(), resource.getDocumentType())
+                && Objects.equals(guest.getDocumentNumber(), resource.getDocumentNumber());
+    }
+
+    static boolean isSameGuest(Guest guest, GuestResource resource) {
+        if (resource.getUuid() != null) {
+            return guest.getUuid() != null && guest.getUuid().toString().equalsIgnoreCase(resource.getUuid());
+        }
+        return resource.getDocumentNumber() != null
+                && resource.getDocumentNumber().equals(guest.getDocumentNumber())
+                && guest.getDocumentType() != null
+                && guest.getDocumentType().name().equals(resource.getDocumentType());
+    }
+
     public boolean isBlock(BookingStatus bookingStatus) {
         return bookingStatus.equals(BookingStatus.BLOCKED);
     }
@@ -0,0 +1,56 @@
+package com.hostfully.booking.api.helper;
+
+import com.hostfully.booking.api.exception.ParameterValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Page size and opaque cursor shared by the keyset listings. The cursor is the URL-safe Base64 of the sort keys
+ * of the last item of the previous page joined by colons, and only the last key may contain a colon.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    static final String INVALID_CURSOR = "The cursor is not valid";
+
+    private KeysetCursor() {
+    }
+
+    public static int limitOf(Integer limit) throws ParameterValidationException {
+        var size = limit == null ? DEFAULT_LIMIT : limit;
+        if (size < 1 || size > MAX_LIMIT) {
+            throw new ParameterValidationException("The limit must be between 1 and " + MAX_LIMIT);
+        }
+        return size;
+    }
+
+    public static String encode(Object... keys) {
+        var token = new StringJoiner(":");
+        for (var key : keys) {
+            token.add(String.valueOf(key));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits the cursor into its keys and parses them, any malformed cursor failing as a validation error.
+     */
+    public static <T> T decode(String cursor, int keys, Function<String[], T> parser) throws ParameterValidationException {
+        try {
+            var token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = token.split(":", keys);
+            if (parts.length != keys) {
+                throw new ParameterValidationException(INVALID_CURSOR);
+            }
+            return parser.apply(parts);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new ParameterValidationException(INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.hostfully.booking.api.lock;
+
+public record LockStatistics(
+        long acquisitions,
+        long contended,
+        long timeouts,
+        long totalWaitNanos,
+        int queuedThreads
+) { }
@@ -0,0 +1,9 @@
+package com.hostfully.booking.api.lock;
+
+import com.hostfully.booking.api.exception.BusinessException;
+
+@FunctionalInterface
+public interface LockedOperation<T> {
+
+    T execute() throws BusinessException;
+}
@@ -0,0 +1,65 @@
+package com.hostfully.booking.api.lock;
+
+import com.hostfully.booking.api.exception.BusinessException;
+import com.hostfully.booking.api.repository.PropertyLeaseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cluster-wide counterpart of {@link PropertyLockManager}, built on the row locks of PROPERTY. Only needed when
+ * several instances write to the same database, so it is disabled unless booking.lease.enabled is set.
+ * The lease is taken inside the write transaction and ends with it, and the TTL bounds that transaction,
+ * so a stalled instance cannot hold a property longer than the TTL.
+ */
+@Component
+@ConditionalOnProperty(prefix = "booking.lease", name = "enabled", havingValue = "true")
+public class PropertyLeaseManager {
+
+    private static final long MAX_BACKOFF_MILLIS = 50;
+
+    private final PropertyLeaseRepository repository;
+    private final long ttlMillis;
+    private final long waitMillis;
+
+    public PropertyLeaseManager(PropertyLeaseRepository repository,
+                                @Value("${booking.lease.ttl-millis:10000}") long ttlMillis,
+                                @Value("${booking.lease.wait-millis:5000}") long waitMillis) {
+        this.repository = repository;
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Takes the lease of the property in the current transaction, which releases it when it ends.
+     */
+    public void acquire(Long propertyId) throws BusinessException {
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        var backoff = 1L;
+        while (true) {
+            if (repository.tryAcquire(propertyId)) {
+                return;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new BusinessException("The property is being updated by another request. Please try again");
+            }
+
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("The request was interrupted while waiting to update the property");
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    /**
+     * Timeout of the write transactions holding a lease, the TTL rounded up to whole seconds.
+     */
+    public int transactionTimeoutSeconds() {
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(ttlMillis + 999));
+    }
+}
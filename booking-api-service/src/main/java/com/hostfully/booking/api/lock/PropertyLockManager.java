@@ -0,0 +1,136 @@
+package com.hostfully.booking.api.lock;
+
+import com.hostfully.booking.api.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the check-then-save sequences of a property while writes to other properties run in parallel.
+ * Properties are spread over a fixed number of fair locks, so memory does not grow with the portfolio;
+ * two properties sharing a stripe only wait for each other, they are never allowed to run unserialized.
+ * The operation runs in a transaction that commits before the lock is released, and rolls back on any exception.
+ * When a {@link PropertyLeaseManager} is enabled, the first statement of that transaction takes the lease of the
+ * property, so only one request per instance competes for it, and the commit or the rollback releases it.
+ * The transaction then times out after the TTL of the lease.
+ */
+@Component
+public class PropertyLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final PropertyLeaseManager leaseManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    public PropertyLockManager(int stripes, long timeoutMillis) {
+        this(stripes, timeoutMillis, Optional.empty(), Optional.empty());
+    }
+
+    @Autowired
+    public PropertyLockManager(@Value("${booking.lock.stripes:256}") int stripes,
+                               @Value("${booking.lock.timeout-millis:5000}") long timeoutMillis,
+                               Optional<PropertyLeaseManager> leaseManager,
+                               Optional<PlatformTransactionManager> transactionManager) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.leaseManager = leaseManager.orElse(null);
+        this.transactionTemplate = transactionManager.map(TransactionTemplate::new).orElse(null);
+        if (this.leaseManager != null && this.transactionTemplate != null) {
+            this.transactionTemplate.setTimeout(this.leaseManager.transactionTimeoutSeconds());
+        }
+    }
+
+    public <T> T executeLocked(Long propertyId, UUID propertyUuid, LockedOperation<T> operation) throws BusinessException {
+        var lock = stripeOf(propertyUuid);
+        acquire(lock);
+        try {
+            if (leaseManager == null) {
+                return executeInTransaction(operation);
+            }
+            return executeInTransaction(() -> {
+                leaseManager.acquire(propertyId);
+                return operation.execute();
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LockStatistics statistics() {
+        return new LockStatistics(acquisitions.sum(), contended.sum(), timeouts.sum(), totalWaitNanos.sum(),
+                Arrays.stream(stripes).mapToInt(ReentrantLock::getQueueLength).sum());
+    }
+
+    private <T> T executeInTransaction(LockedOperation<T> operation) throws BusinessException {
+        if (transactionTemplate == null) {
+            return operation.execute();
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    return operation.execute();
+                } catch (BusinessException ex) {
+                    throw new RollbackException(ex);
+                }
+            });
+        } catch (RollbackException ex) {
+            throw ex.businessException;
+        }
+    }
+
+    private void acquire(ReentrantLock lock) throws BusinessException {
+        if (lock.isLocked() && !lock.isHeldByCurrentThread()) {
+            contended.increment();
+        }
+
+        var start = System.nanoTime();
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new BusinessException("The property is being updated by another request. Please try again");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("The request was interrupted while waiting to update the property");
+        } finally {
+            totalWaitNanos.add(System.nanoTime() - start);
+        }
+        acquisitions.increment();
+    }
+
+    private ReentrantLock stripeOf(UUID propertyUuid) {
+        var hash = propertyUuid.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    /**
+     * Carries a checked {@link BusinessException} out of the transaction callback, which only rolls back on unchecked ones.
+     */
+    private static final class RollbackException extends RuntimeException {
+
+        private final transient BusinessException businessException;
+
+        private RollbackException(BusinessException businessException) {
+            super(businessException.getMessage(), businessException, false, false);
+            this.businessException = businessException;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hostfully.booking.api.mapper;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Bookings to resources and back. The property and the status of a new booking are set by the services, never
+ * taken from the request.
+ */
+@Mapper(config = MappingConfig.class, uses = {PropertyMapper.class, GuestMapper.class})
+public interface BookingMapper {
+
+    BookingResponseResource toResource(Booking booking);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "uuid", ignore = true)
+    @Mapping(target = "property", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Booking toEntity(BookingRequestResource resource);
+}
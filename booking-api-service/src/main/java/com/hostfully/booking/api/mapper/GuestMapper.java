@@ -0,0 +1,27 @@
+package com.hostfully.booking.api.mapper;
+
+import com.hostfully.booking.api.entity.Guest;
+import com.hostfully.booking.api.resource.GuestResource;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+@Mapper(config = MappingConfig.class)
+public interface GuestMapper {
+
+    GuestResource toResource(Guest guest);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "uuid", ignore = true)
+    Guest toEntity(GuestResource resource);
+
+    /**
+     * Copies the resource over an existing guest, clearing the optional fields left out of the resource.
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.SET_TO_NULL)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "uuid", ignore = true)
+    void updateEntity(GuestResource resource, @MappingTarget Guest guest);
+}
@@ -0,0 +1,11 @@
+package com.hostfully.booking.api.mapper;
+
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.resource.PropertyResource;
+import org.mapstruct.Mapper;
+
+@Mapper(config = MappingConfig.class)
+public interface PropertyMapper {
+
+    PropertyResource toResource(Property property);
+}
@@ -0,0 +1,26 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AvailabilityMatrixResource {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Integer days;
+
+    private String granularity;
+
+    private String encoding;
+
+    private List<PropertyOccupancyResource> properties;
+}
@@ -0,0 +1,23 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AvailabilityResource {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private Integer availableCount;
+
+    private List<UUID> availableProperties;
+}
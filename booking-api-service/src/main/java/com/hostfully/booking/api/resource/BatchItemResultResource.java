@@ -0,0 +1,25 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchItemResultResource {
+
+    private Integer index;
+
+    private Integer statusCode;
+
+    private String statusName;
+
+    private BookingResponseResource booking;
+
+    private List<String> errorMessages;
+
+    private List<DateRangeResource> conflicts;
+}
@@ -0,0 +1,19 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BatchResultResource {
+
+    private Integer createdCount;
+
+    private Integer rejectedCount;
+
+    private List<BatchItemResultResource> results;
+}
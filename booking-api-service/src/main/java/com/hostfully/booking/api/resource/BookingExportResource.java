@@ -0,0 +1,24 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingExportResource {
+
+    private String uuid;
+
+    private String propertyId;
+
+    private String status;
+
+    private LocalDate beginAt;
+
+    private LocalDate endAt;
+
+    private List<GuestResource> guests;
+}
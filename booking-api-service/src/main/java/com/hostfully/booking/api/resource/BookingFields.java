@@ -0,0 +1,75 @@
+package com.hostfully.booking.api.resource;
+
+import com.hostfully.booking.api.exception.ParameterValidationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of a Booking asked for with the fields parameter, a comma separated list of the names used by
+ * BookingResponseResource. The UUID is always part of the response, and no parameter means every field.
+ */
+public final class BookingFields {
+
+    public enum Field {
+        UUID("uuid"),
+        PROPERTY("property"),
+        STATUS("status"),
+        BEGIN_AT("beginAt"),
+        END_AT("endAt"),
+        GUESTS("guests");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+    }
+
+    public static final BookingFields ALL = new BookingFields(EnumSet.allOf(Field.class));
+
+    private static final String VALID_NAMES = Arrays.stream(Field.values())
+            .map(Field::getJsonName)
+            .collect(Collectors.joining(", "));
+
+    private final Set<Field> fields;
+
+    private BookingFields(Set<Field> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    public static BookingFields parse(String fields) throws ParameterValidationException {
+        if (fields == null) {
+            return ALL;
+        }
+
+        var parsed = EnumSet.of(Field.UUID);
+        for (var name : fields.split(",")) {
+            var trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(Field.values())
+                    .filter(field -> field.getJsonName().equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new ParameterValidationException(
+                            "The field " + trimmed + " is not valid. The valid fields are: " + VALID_NAMES)));
+        }
+        return new BookingFields(parsed);
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return fields.size() == Field.values().length;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hostfully.booking.api.resource;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.FutureOrPresent;
@@ -34,4 +35,7 @@ public class BookingResponseResource {
     private LocalDate endAt;
 
     private List<GuestResource> guests;
+
+    @JsonIgnore
+    private Long version;
 }
@@ -12,6 +12,12 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class GuestResource {
 
+    /**
+     * UUID of a guest already in the booking, to update that guest instead of adding a new one.
+     */
+    @Size(max = 36, message = "The UUID of the guest must be lower than 36 characters")
+    private String uuid;
+
     @NotBlank(message = "The name of the guest must not be NULL or EMPTY")
     @Size(max = 100, message = "The name of the guest must be lower than 100 characters")
     private String name;
@@ -0,0 +1,33 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One line of the NDJSON import report. ERROR records point to a rejected input line, PROGRESS records follow
+ * every chunk and a single SUMMARY record closes the report.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ImportRecordResource {
+
+    private String type;
+
+    private Long line;
+
+    private Integer statusCode;
+
+    private List<String> errorMessages;
+
+    private List<DateRangeResource> conflicts;
+
+    private Long processed;
+
+    private Long created;
+
+    private Long rejected;
+}
@@ -0,0 +1,24 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PropertyOccupancyResource {
+
+    private UUID property;
+
+    private Integer occupiedDays;
+
+    private List<int[]> runs;
+
+    private String bitset;
+
+    private List<OccupancyBucketResource> buckets;
+}
@@ -0,0 +1,71 @@
+package com.hostfully.booking.api.resource;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Encodings of the booking responses. JSON stays the default, while CBOR and Smile are binary encodings of the same
+ * resources for clients asking for them in the Accept header.
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON, JsonFactory::new),
+    CBOR(MediaType.APPLICATION_CBOR, CBORFactory::new),
+    SMILE(new MediaType("application", "x-jackson-smile"), SmileFactory::new);
+
+    private final MediaType mediaType;
+    private final Supplier<JsonFactory> factory;
+
+    ResponseFormat(MediaType mediaType, Supplier<JsonFactory> factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public JsonFactory newFactory() {
+        return factory.get();
+    }
+
+    /**
+     * Format of the most preferred types of the Accept header, JSON when the header is missing, accepts anything or
+     * ties with a binary format. Nothing is returned when no format is acceptable.
+     */
+    public static Optional<ResponseFormat> negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Optional.of(JSON);
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return Optional.empty();
+        }
+
+        var qualities = accepted.stream()
+                .map(MediaType::getQualityValue)
+                .filter(quality -> quality > 0)
+                .collect(Collectors.toCollection(() -> new TreeSet<Double>(Comparator.reverseOrder())));
+        for (var quality : qualities) {
+            for (var format : values()) {
+                if (accepted.stream().anyMatch(type -> type.getQualityValue() == quality && type.includes(format.mediaType))) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
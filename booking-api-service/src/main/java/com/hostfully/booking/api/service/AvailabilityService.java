@@ -0,0 +1,177 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.availability.Granularity;
+import com.hostfully.booking.api.availability.OccupancyEncoding;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.resource.AvailabilityMatrixResource;
+import com.hostfully.booking.api.resource.AvailabilityResource;
+import com.hostfully.booking.api.resource.DateRangeResource;
+import com.hostfully.booking.api.resource.OccupancyBucketResource;
+import com.hostfully.booking.api.resource.PropertyOccupancyResource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+
+    private static final long MAX_MATRIX_DAYS = 1096;
+    private static final int MAX_MATRIX_PROPERTIES = 100;
+    private static final int MAX_WINDOW_NIGHTS = 365;
+    private static final long MAX_SEARCH_DAYS = 1096;
+
+    private final AvailabilityIndex availabilityIndex;
+
+    public AvailabilityResource findAvailableProperties(LocalDate from, LocalDate to) throws ParameterValidationException {
+        validateRange(from, to);
+
+        var available = availabilityIndex.findAvailableProperties(from, to);
+        var resource = new AvailabilityResource();
+        resource.setFrom(from);
+        resource.setTo(to);
+        resource.setAvailableCount(available.size());
+        resource.setAvailableProperties(available);
+        return resource;
+    }
+
+    public AvailabilityMatrixResource findOccupancyMatrix(List<String> propertyIds, LocalDate from, LocalDate to,
+                                                          Granularity granularity, OccupancyEncoding encoding)
+            throws ParameterValidationException {
+        validateRange(from, to);
+        var days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_MATRIX_DAYS) {
+            throw new ParameterValidationException("The matrix window must not be longer than " + MAX_MATRIX_DAYS + " days");
+        }
+
+        var properties = resolveProperties(propertyIds);
+        if (properties.size() > MAX_MATRIX_PROPERTIES) {
+            throw new ParameterValidationException("The matrix must not have more than " + MAX_MATRIX_PROPERTIES
+                    + " properties, select them with the properties parameter");
+        }
+        var begin = from.toEpochDay();
+        var end = to.toEpochDay();
+        var rows = properties.parallelStream()
+                .map(uuid -> toOccupancy(uuid, availabilityIndex.calendarOf(uuid).occupancy(begin, end),
+                        from, to, granularity, encoding))
+                .toList();
+
+        var resource = new AvailabilityMatrixResource();
+        resource.setFrom(from);
+        resource.setTo(to);
+        resource.setDays((int) days);
+        resource.setGranularity(granularity.name());
+        if (granularity == Granularity.DAY) {
+            resource.setEncoding(encoding.name());
+        }
+        resource.setProperties(rows);
+        return resource;
+    }
+
+    public DateRangeResource findNextFreeWindow(String propertyId, LocalDate after, int nights) throws ParameterValidationException {
+        if (after == null) {
+            throw new ParameterValidationException("The after date must not be NULL or EMPTY");
+        }
+        if (nights < 1) {
+            throw new ParameterValidationException("The number of nights must be greater than zero");
+        }
+        if (nights > MAX_WINDOW_NIGHTS) {
+            throw new ParameterValidationException("The number of nights must not be greater than " + MAX_WINDOW_NIGHTS);
+        }
+        if (after.isAfter(LocalDate.now().plusDays(MAX_SEARCH_DAYS))) {
+            throw new ParameterValidationException("The after date must not be more than " + MAX_SEARCH_DAYS + " days ahead");
+        }
+
+        var propertyUuid = resolveProperties(List.of(propertyId)).get(0);
+        var window = availabilityIndex.nextFreeWindow(propertyUuid, after, nights);
+        return new DateRangeResource(window.beginAt(), window.endAt());
+    }
+
+    private List<UUID> resolveProperties(List<String> propertyIds) throws ParameterValidationException {
+        var known = availabilityIndex.propertyUuids();
+        if (propertyIds == null || propertyIds.isEmpty()) {
+            return List.copyOf(known);
+        }
+
+        var properties = new ArrayList<UUID>(propertyIds.size());
+        for (var propertyId : propertyIds) {
+            try {
+                var uuid = UUID.fromString(propertyId);
+                if (!known.contains(uuid)) {
+                    throw new ObjectNotFoundException(Property.class);
+                }
+                properties.add(uuid);
+            } catch (IllegalArgumentException ex) {
+                throw new ParameterValidationException(ex.getMessage());
+            }
+        }
+        return properties;
+    }
+
+    private PropertyOccupancyResource toOccupancy(UUID propertyUuid, BitSet occupied, LocalDate from, LocalDate to,
+                                                  Granularity granularity, OccupancyEncoding encoding) {
+        var resource = new PropertyOccupancyResource();
+        resource.setProperty(propertyUuid);
+        resource.setOccupiedDays(occupied.cardinality());
+
+        if (granularity != Granularity.DAY) {
+            resource.setBuckets(toBuckets(occupied, from, to, granularity));
+        } else if (encoding == OccupancyEncoding.BITSET) {
+            resource.setBitset(Base64.getEncoder().encodeToString(occupied.toByteArray()));
+        } else {
+            resource.setRuns(toRuns(occupied));
+        }
+        return resource;
+    }
+
+    private static List<int[]> toRuns(BitSet occupied) {
+        var runs = new ArrayList<int[]>();
+        for (int start = occupied.nextSetBit(0); start >= 0; ) {
+            int stop = occupied.nextClearBit(start);
+            runs.add(new int[]{start, stop - start});
+            start = occupied.nextSetBit(stop);
+        }
+        return runs;
+    }
+
+    private static List<OccupancyBucketResource> toBuckets(BitSet occupied, LocalDate from, LocalDate to, Granularity granularity) {
+        var buckets = new ArrayList<OccupancyBucketResource>();
+        var bucketStart = from;
+        while (!bucketStart.isAfter(to)) {
+            var nextBucket = granularity == Granularity.WEEK
+                    ? granularity.bucketOf(bucketStart).plusWeeks(1)
+                    : granularity.bucketOf(bucketStart).plusMonths(1);
+            var bucketEnd = nextBucket.isAfter(to) ? to.plusDays(1) : nextBucket;
+
+            int fromIndex = (int) ChronoUnit.DAYS.between(from, bucketStart);
+            int toIndex = (int) ChronoUnit.DAYS.between(from, bucketEnd);
+            var bucket = new OccupancyBucketResource();
+            bucket.setStart(bucketStart);
+            bucket.setDays(toIndex - fromIndex);
+            bucket.setOccupiedDays(occupied.get(fromIndex, toIndex).cardinality());
+            buckets.add(bucket);
+
+            bucketStart = bucketEnd;
+        }
+        return buckets;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) throws ParameterValidationException {
+        if (from == null || to == null) {
+            throw new ParameterValidationException("The from and to dates must not be NULL or EMPTY");
+        }
+        if (from.isAfter(to)) {
+            throw new ParameterValidationException("The from date must not be after the to date");
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.hostfully.booking.api.service;
 
+import com.hostfully.booking.api.cache.BookingResponseCache;
+import com.hostfully.booking.api.cache.CachedBooking;
 import com.hostfully.booking.api.entity.Booking;
 import com.hostfully.booking.api.entity.BookingStatus;
 import com.hostfully.booking.api.entity.Property;
@@ -7,11 +9,14 @@ import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ObjectNotFoundException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
 import com.hostfully.booking.api.helper.BookingHelper;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.mapper.BookingMapper;
 import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.BookingFields;
 import com.hostfully.booking.api.resource.BookingRequestResource;
 import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -21,38 +26,50 @@ import java.util.ArrayList;
 public class BlockService {
 
     private final BookingHelper helper;
-    private final ModelMapper mapper;
+    private final BookingMapper mapper;
     private final BookingRepository repository;
+    private final PropertyLockManager lockManager;
     private final PropertyService propertyService;
+    private final BookingResponseCache responseCache;
+    private final BookingSearchService searchService;
 
     public BookingResponseResource createBlock(BookingRequestResource resource) throws BusinessException {
-        var property = propertyService.findByUUID(resource.getPropertyId())
+        var property = propertyService.findEntity(resource.getPropertyId())
                 .orElseThrow(() -> new ObjectNotFoundException(Property.class));
 
-        helper.validateOverlappedDates(0L, property.getUuid(), resource.getBeginAt(), resource.getEndAt());
+        var persisted = lockManager.executeLocked(property.getId(), property.getUuid(), () -> {
+            helper.validateOverlappedDates(0L, property.getUuid(), resource.getBeginAt(), resource.getEndAt());
 
-        var entity = mapper.map(resource, Booking.class);
-        entity.setProperty(mapper.map(property, Property.class));
-        entity.setStatus(BookingStatus.BLOCKED);
-        entity.setGuests(new ArrayList<>());
-
-        var persisted = repository.save(entity);
-        return mapper.map(persisted, BookingResponseResource.class);
+            var entity = mapper.toEntity(resource);
+            entity.setProperty(property);
+            entity.setStatus(BookingStatus.BLOCKED);
+            entity.setGuests(new ArrayList<>());
+            return saveAndPublish(entity);
+        });
+        return mapper.toResource(persisted);
     }
 
     public BookingResponseResource updateBlock(String uuid, BookingRequestResource requestResource)
             throws ParameterValidationException, BusinessException {
+        return updateBlock(uuid, requestResource, null);
+    }
+
+    public BookingResponseResource updateBlock(String uuid, BookingRequestResource requestResource, Long expectedVersion)
+            throws ParameterValidationException, BusinessException {
 
         var booking = helper.findBookingOrElseThrow(uuid);
         if (helper.isNotBlock(booking.getStatus())) {
             throw new BusinessException("You can update bookings only with BLOCKED status");
         }
+        helper.validateVersion(booking, expectedVersion);
 
-        helper.validateOverlappedDates(booking.getId(), booking.getProperty().getUuid(), booking.getBeginAt(), booking.getEndAt());
+        var updated = lockManager.executeLocked(booking.getProperty().getId(), booking.getProperty().getUuid(), () -> {
+            helper.validateOverlappedDates(booking.getId(), booking.getProperty().getUuid(), requestResource.getBeginAt(), requestResource.getEndAt());
 
-        var mergedBooking = helper.mergeEntityToUpdate(requestResource, booking);
-        var updated = repository.save(mergedBooking);
-        return mapper.map(updated, BookingResponseResource.class);
+            var mergedBooking = helper.mergeEntityToUpdate(requestResource, booking);
+            return saveAndPublish(mergedBooking);
+        });
+        return mapper.toResource(updated);
     }
 
     public void deleteBlock(String uuid) throws ParameterValidationException, BusinessException {
@@ -61,15 +78,51 @@ public class BlockService {
             throw new BusinessException("You can delete bookings only with BLOCKED status");
         }
 
-        repository.delete(booking);
+        lockManager.executeLocked(booking.getProperty().getId(), booking.getProperty().getUuid(), () -> {
+            helper.removeNights(booking);
+            repository.delete(booking);
+            helper.publishRemoved(booking);
+            return booking;
+        });
     }
 
     public BookingResponseResource findByUUID(String uuid) throws ParameterValidationException {
         var block = helper.findBookingOrElseThrow(uuid);
-        if (helper.isNotBlock(block.getStatus())) {
-            return mapper.map(block, BookingResponseResource.class);
+        if (helper.isBlock(block.getStatus())) {
+            return mapper.toResource(block);
         }
 
         throw new ObjectNotFoundException(Booking.class);
     }
+
+    /**
+     * Block with only the requested fields, reading the property and the guests only when they are among them.
+     */
+    public BookingResponseResource findByUUID(String uuid, String fields) throws ParameterValidationException {
+        var requested = BookingFields.parse(fields);
+        return searchService.findBooking(helper.parseBookingUuid(uuid), requested)
+                .filter(block -> helper.isBlock(block.getStatus()))
+                .map(block -> searchService.toResource(block, requested))
+                .orElseThrow(() -> new ObjectNotFoundException(Booking.class));
+    }
+
+    /**
+     * Serialized block from the response cache, read from the database only when it is not cached.
+     */
+    public CachedBooking findSerializedByUUID(String uuid) throws ParameterValidationException {
+        return findSerializedByUUID(uuid, ResponseFormat.JSON);
+    }
+
+    public CachedBooking findSerializedByUUID(String uuid, ResponseFormat format) throws ParameterValidationException {
+        return responseCache.find(helper.parseBookingUuid(uuid), format)
+                .filter(block -> helper.isBlock(block.status()))
+                .orElseThrow(() -> new ObjectNotFoundException(Booking.class));
+    }
+
+    private Booking saveAndPublish(Booking booking) throws BusinessException {
+        var saved = repository.save(booking);
+        helper.storeNights(saved);
+        helper.publishSaved(saved);
+        return saved;
+    }
 }
@@ -0,0 +1,236 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.availability.OccupiedRange;
+import com.hostfully.booking.api.cache.PropertyCache;
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.exception.BookingConflictException;
+import com.hostfully.booking.api.exception.BusinessException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.helper.BookingHelper;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.BatchItemResultResource;
+import com.hostfully.booking.api.resource.BatchResultResource;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.DateRangeResource;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.FutureOrPresent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates many bookings or blocks in one request. Items are grouped by property and every group is validated
+ * against the stored rows and the previous items of the group in a single pass, then inserted with one saveAll
+ * inside the lock of the property. Each item gets its own result, a rejected item does not reject the others.
+ * Groups commit one by one, so a group that fails unexpectedly only fails its own items.
+ */
+@Slf4j
+@Service
+public class BookingBatchService {
+
+    private static final String GROUP_FAILED = "The items of this property could not be saved. Please try again";
+
+    private final BookingHelper helper;
+    private final BookingMapper mapper;
+    private final BookingRepository repository;
+    private final PropertyCache propertyCache;
+    private final AvailabilityIndex availabilityIndex;
+    private final PropertyLockManager lockManager;
+    private final GuestService guestService;
+    private final Validator validator;
+    private final int maxSize;
+
+    public BookingBatchService(BookingHelper helper,
+                               BookingMapper mapper,
+                               BookingRepository repository,
+                               PropertyCache propertyCache,
+                               AvailabilityIndex availabilityIndex,
+                               PropertyLockManager lockManager,
+                               GuestService guestService,
+                               Validator validator,
+                               @Value("${booking.batch.max-size:1000}") int maxSize) {
+        this.helper = helper;
+        this.mapper = mapper;
+        this.repository = repository;
+        this.propertyCache = propertyCache;
+        this.availabilityIndex = availabilityIndex;
+        this.lockManager = lockManager;
+        this.guestService = guestService;
+        this.validator = validator;
+        this.maxSize = maxSize;
+    }
+
+    public BatchResultResource createBookings(List<BookingRequestResource> resources) throws ParameterValidationException {
+        validateSize(resources);
+        return createAll(resources, BookingStatus.BOOKED, false);
+    }
+
+    public BatchResultResource createBlocks(List<BookingRequestResource> resources) throws ParameterValidationException {
+        validateSize(resources);
+        return createAll(resources, BookingStatus.BLOCKED, false);
+    }
+
+    /**
+     * Same as the batch creation, without the size limit and accepting past dates, for loading historical data.
+     */
+    public BatchResultResource importChunk(List<BookingRequestResource> resources, BookingStatus status) {
+        return createAll(resources, status, true);
+    }
+
+    private void validateSize(List<BookingRequestResource> resources) throws ParameterValidationException {
+        if (resources == null || resources.isEmpty()) {
+            throw new ParameterValidationException("The batch must have at least one item");
+        }
+        if (resources.size() > maxSize) {
+            throw new ParameterValidationException("The batch must have at most " + maxSize + " items");
+        }
+    }
+
+    private BatchResultResource createAll(List<BookingRequestResource> resources, BookingStatus status, boolean acceptPastDates) {
+        var results = new BatchItemResultResource[resources.size()];
+        var groups = new LinkedHashMap<UUID, List<Integer>>();
+        for (int i = 0; i < resources.size(); i++) {
+            var violations = validate(resources.get(i), acceptPastDates);
+            if (!violations.isEmpty()) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, violations);
+                continue;
+            }
+
+            try {
+                groups.computeIfAbsent(UUID.fromString(resources.get(i).getPropertyId()), uuid -> new ArrayList<>()).add(i);
+            } catch (IllegalArgumentException ex) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, List.of(ex.getMessage()));
+            }
+        }
+
+        var properties = propertyCache.findAll(groups.keySet());
+        for (var group : groups.entrySet()) {
+            var property = properties.get(group.getKey());
+            if (property == null) {
+                group.getValue().forEach(i -> results[i] = failure(i, HttpStatus.NOT_FOUND,
+                        List.of("The Property was not found in the Database")));
+                continue;
+            }
+
+            try {
+                lockManager.executeLocked(property.getId(), property.getUuid(),
+                        () -> createGroup(property, group.getValue(), resources, status, results));
+            } catch (BusinessException ex) {
+                // The whole group was rolled back, including the items already marked as created
+                group.getValue().forEach(i -> results[i] = ex instanceof BookingConflictException conflict
+                        ? conflict(i, ex.getMessage(), conflict.getConflict().conflicts())
+                        : failure(i, HttpStatus.CONFLICT, List.of(ex.getMessage())));
+            } catch (RuntimeException ex) {
+                // The groups already committed stay created, only the items of this group are reported as failed
+                log.error("The batch group of the property {} could not be saved", property.getUuid(), ex);
+                group.getValue().forEach(i -> results[i] = failure(i, HttpStatus.INTERNAL_SERVER_ERROR,
+                        List.of(GROUP_FAILED)));
+            }
+        }
+
+        var result = new BatchResultResource();
+        result.setResults(Arrays.asList(results));
+        result.setCreatedCount((int) result.getResults().stream()
+                .filter(item -> item.getStatusCode() == HttpStatus.CREATED.value())
+                .count());
+        result.setRejectedCount(resources.size() - result.getCreatedCount());
+        return result;
+    }
+
+    private List<Booking> createGroup(Property property, List<Integer> indexes, List<BookingRequestResource> resources,
+                                      BookingStatus status, BatchItemResultResource[] results) throws BusinessException {
+        // Only the stored ranges reaching the dates of the group can conflict with it
+        var calendar = availabilityIndex.readCalendar(property.getId(),
+                indexes.stream().map(i -> resources.get(i).getBeginAt()).min(Comparator.naturalOrder()).orElseThrow(),
+                indexes.stream().map(i -> resources.get(i).getEndAt()).max(Comparator.naturalOrder()).orElseThrow());
+        var accepted = new LinkedHashMap<Integer, Booking>();
+        for (var i : indexes) {
+            var resource = resources.get(i);
+            var begin = resource.getBeginAt().toEpochDay();
+            var end = resource.getEndAt().toEpochDay();
+            if (calendar.hasOverlap(0L, begin, end)) {
+                results[i] = conflict(i, BookingConflictException.OVERLAPPING_DATES, calendar.findOverlaps(0L, begin, end));
+                continue;
+            }
+
+            // Pending items have negative ids, so they never clash with a stored booking
+            calendar.put(new OccupiedRange(-1L - i, begin, end));
+            accepted.put(i, toEntity(resource, property, status));
+        }
+
+        guestService.linkExistingGuests(accepted.values());
+        var saved = repository.saveAll(accepted.values());
+        var index = 0;
+        for (var entry : accepted.entrySet()) {
+            var booking = saved.get(index++);
+            helper.storeNights(booking);
+            helper.publishSaved(booking);
+            results[entry.getKey()] = created(entry.getKey(), booking);
+        }
+        return saved;
+    }
+
+    private Booking toEntity(BookingRequestResource resource, Property property, BookingStatus status) {
+        var entity = mapper.toEntity(resource);
+        entity.setProperty(property);
+        entity.setStatus(status);
+        if (status == BookingStatus.BLOCKED) {
+            entity.setGuests(new ArrayList<>());
+        }
+        return entity;
+    }
+
+    private List<String> validate(BookingRequestResource resource, boolean acceptPastDates) {
+        if (resource == null) {
+            return List.of("The batch item must not be NULL");
+        }
+        return validator.validate(resource).stream()
+                .filter(violation -> !acceptPastDates
+                        || !(violation.getConstraintDescriptor().getAnnotation() instanceof FutureOrPresent))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+    }
+
+    private BatchItemResultResource created(int index, Booking booking) {
+        var result = result(index, HttpStatus.CREATED);
+        result.setBooking(mapper.toResource(booking));
+        return result;
+    }
+
+    private static BatchItemResultResource conflict(int index, String message, List<OccupiedRange> conflicts) {
+        var result = failure(index, HttpStatus.CONFLICT, List.of(message));
+        result.setConflicts(conflicts.stream()
+                .map(range -> new DateRangeResource(range.beginAt(), range.endAt()))
+                .toList());
+        return result;
+    }
+
+    private static BatchItemResultResource failure(int index, HttpStatus status, List<String> messages) {
+        var result = result(index, status);
+        result.setErrorMessages(messages);
+        return result;
+    }
+
+    private static BatchItemResultResource result(int index, HttpStatus status) {
+        var result = new BatchItemResultResource();
+        result.setIndex(index);
+        result.setStatusCode(status.value());
+        result.setStatusName(status.getReasonPhrase());
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+package com.hostfully.booking.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.BookingExportProjection;
+import com.hostfully.booking.api.repository.projection.GuestExportProjection;
+import com.hostfully.booking.api.resource.BookingExportResource;
+import com.hostfully.booking.api.resource.GuestResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes the bookings of a property as NDJSON while they are read. Rows come from a forward-only stream of
+ * projections, so nothing is kept in the persistence context, and the guests are fetched once per chunk of rows.
+ * Memory is bounded by the chunk size whatever the number of bookings, and the output is flushed after every chunk.
+ */
+@Slf4j
+@Service
+public class BookingExportService {
+
+    private final BookingRepository repository;
+    private final PropertyRepository propertyRepository;
+    private final ObjectWriter writer;
+    private final int chunkSize;
+
+    public BookingExportService(BookingRepository repository,
+                                PropertyRepository propertyRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${booking.export.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.propertyRepository = propertyRepository;
+        this.writer = objectMapper.writerFor(BookingExportResource.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validates the parameters before anything is written, so errors can still be answered with a regular status.
+     */
+    public Criteria prepareExport(String propertyId, LocalDate from, LocalDate to) throws ParameterValidationException {
+        if (propertyId == null || propertyId.isBlank()) {
+            throw new ParameterValidationException("The Property ID must not be NULL or EMPTY");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ParameterValidationException("The from date must not be after the to date");
+        }
+
+        try {
+            var property = propertyRepository.findByUuid(UUID.fromString(propertyId))
+                    .orElseThrow(() -> new ObjectNotFoundException(Property.class));
+            return new Criteria(property.getId(), property.getUuid(), from, to);
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterValidationException(ex.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportBookings(Criteria criteria, OutputStream output) throws IOException {
+        var exported = 0L;
+        try (var rows = repository.streamForExport(criteria.propertyId(), criteria.from(), criteria.to())) {
+            var iterator = rows.iterator();
+            var chunk = new ArrayList<BookingExportProjection>(chunkSize);
+            while (iterator.hasNext()) {
+                fill(chunk, iterator);
+                writeChunk(output, criteria.propertyUuid(), chunk);
+                exported += chunk.size();
+                chunk.clear();
+            }
+        }
+        output.flush();
+        log.info("Export of property {} finished with {} bookings", criteria.propertyUuid(), exported);
+        return exported;
+    }
+
+    private void fill(List<BookingExportProjection> chunk, Iterator<BookingExportProjection> iterator) {
+        while (chunk.size() < chunkSize && iterator.hasNext()) {
+            chunk.add(iterator.next());
+        }
+    }
+
+    private void writeChunk(OutputStream output, UUID propertyUuid, List<BookingExportProjection> chunk) throws IOException {
+        var guests = new HashMap<Long, List<GuestResource>>();
+        repository.findGuestsByBookingIds(chunk.stream().map(BookingExportProjection::getId).toList())
+                .forEach(guest -> guests.computeIfAbsent(guest.getBookingId(), id -> new ArrayList<>()).add(toGuest(guest)));
+
+        for (var row : chunk) {
+            output.write(writer.writeValueAsBytes(toResource(row, propertyUuid, guests)));
+            output.write('\n');
+        }
+        output.flush();
+    }
+
+    private static BookingExportResource toResource(BookingExportProjection row, UUID propertyUuid,
+                                                    Map<Long, List<GuestResource>> guests) {
+        var resource = new BookingExportResource();
+        resource.setUuid(row.getUuid().toString());
+        resource.setPropertyId(propertyUuid.toString());
+        resource.setStatus(row.getStatus().name());
+        resource.setBeginAt(row.getBeginAt());
+        resource.setEndAt(row.getEndAt());
+        resource.setGuests(guests.getOrDefault(row.getId(), List.of()));
+        return resource;
+    }
+
+    private static GuestResource toGuest(GuestExportProjection projection) {
+        var guest = new GuestResource();
+        guest.setName(projection.getName());
+        guest.setAge(projection.getAge());
+        guest.setEmail(projection.getEmail());
+        guest.setDocumentType(projection.getDocumentType() != null ? projection.getDocumentType().name() : null);
+        guest.setDocumentNumber(projection.getDocumentNumber());
+        return guest;
+    }
+
+    public record Criteria(Long propertyId, UUID propertyUuid, LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.hostfully.booking.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.resource.BatchItemResultResource;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.ImportRecordResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Loads bookings or blocks from an NDJSON stream. Lines are read incrementally and persisted in chunks through
+ * {@link BookingBatchService}, so memory is bounded by the chunk size whatever the size of the input. Every group of
+ * a chunk commits in its own transaction, whose persistence context is closed with it. The next chunk
+ * is only read once the previous one is committed, which lets TCP flow control slow the client down.
+ * The report is written as NDJSON as well and flushed after every chunk.
+ */
+@Slf4j
+@Service
+public class BookingImportService {
+
+    private static final String ERROR = "ERROR";
+    private static final String PROGRESS = "PROGRESS";
+    private static final String SUMMARY = "SUMMARY";
+
+    private final BookingBatchService batchService;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int chunkSize;
+    private final int maxLineLength;
+
+    public BookingImportService(BookingBatchService batchService,
+                                ObjectMapper objectMapper,
+                                @Value("${booking.import.chunk-size:500}") int chunkSize,
+                                @Value("${booking.import.max-line-length:65536}") int maxLineLength) {
+        this.batchService = batchService;
+        this.reader = objectMapper.readerFor(BookingRequestResource.class);
+        this.writer = objectMapper.writerFor(ImportRecordResource.class);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public ImportRecordResource importBookings(InputStream input, OutputStream output) throws IOException {
+        return importAll(input, output, BookingStatus.BOOKED);
+    }
+
+    public ImportRecordResource importBlocks(InputStream input, OutputStream output) throws IOException {
+        return importAll(input, output, BookingStatus.BLOCKED);
+    }
+
+    private ImportRecordResource importAll(InputStream input, OutputStream output, BookingStatus status) throws IOException {
+        var in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        var summary = new ImportRecordResource();
+        summary.setProcessed(0L);
+        summary.setCreated(0L);
+        summary.setRejected(0L);
+
+        var chunk = new ArrayList<BookingRequestResource>(chunkSize);
+        var chunkLines = new ArrayList<Long>(chunkSize);
+        var errors = new ArrayList<ImportRecordResource>();
+        var lineNumber = 0L;
+        String line;
+        while ((line = readLine(in)) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (line.length() > maxLineLength) {
+                summary.setProcessed(summary.getProcessed() + 1);
+                errors.add(error(lineNumber, HttpStatus.BAD_REQUEST,
+                        List.of("The line must not be longer than " + maxLineLength + " characters")));
+                continue;
+            }
+
+            try {
+                chunk.add(reader.readValue(line));
+                chunkLines.add(lineNumber);
+            } catch (JsonProcessingException ex) {
+                summary.setProcessed(summary.getProcessed() + 1);
+                errors.add(error(lineNumber, HttpStatus.BAD_REQUEST, List.of(ex.getOriginalMessage())));
+            }
+
+            if (chunk.size() + errors.size() >= chunkSize) {
+                flushChunk(output, summary, chunk, chunkLines, errors, status);
+            }
+        }
+        flushChunk(output, summary, chunk, chunkLines, errors, status);
+
+        summary.setType(SUMMARY);
+        write(output, summary);
+        output.flush();
+        log.info("Import of {} finished with {} created and {} rejected of {} lines",
+                status, summary.getCreated(), summary.getRejected(), summary.getProcessed());
+        return summary;
+    }
+
+    private void flushChunk(OutputStream output, ImportRecordResource summary, List<BookingRequestResource> chunk,
+                            List<Long> chunkLines, List<ImportRecordResource> errors, BookingStatus status) throws IOException {
+        if (chunk.isEmpty() && errors.isEmpty()) {
+            return;
+        }
+
+        if (!chunk.isEmpty()) {
+            var result = batchService.importChunk(chunk, status);
+            for (var item : result.getResults()) {
+                if (item.getStatusCode() == HttpStatus.CREATED.value()) {
+                    summary.setCreated(summary.getCreated() + 1);
+                } else {
+                    errors.add(error(chunkLines.get(item.getIndex()), item));
+                }
+            }
+            summary.setProcessed(summary.getProcessed() + chunk.size());
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        // Lines rejected while parsing and while saving are reported together, in the order of the input
+        errors.sort(Comparator.comparing(ImportRecordResource::getLine));
+        for (var error : errors) {
+            summary.setRejected(summary.getRejected() + 1);
+            write(output, error);
+        }
+        errors.clear();
+
+        var progress = new ImportRecordResource();
+        progress.setType(PROGRESS);
+        progress.setProcessed(summary.getProcessed());
+        progress.setCreated(summary.getCreated());
+        progress.setRejected(summary.getRejected());
+        write(output, progress);
+        output.flush();
+    }
+
+    private void write(OutputStream output, ImportRecordResource record) throws IOException {
+        output.write(writer.writeValueAsBytes(record));
+        output.write('\n');
+    }
+
+    /**
+     * Reads a line keeping at most one character beyond the limit, the rest of an oversized line is skipped.
+     */
+    private String readLine(BufferedReader in) throws IOException {
+        var line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (line.length() <= maxLineLength && c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return c == -1 && line.isEmpty() ? null : line.toString();
+    }
+
+    private static ImportRecordResource error(Long line, BatchItemResultResource item) {
+        var error = error(line, HttpStatus.valueOf(item.getStatusCode()), item.getErrorMessages());
+        error.setConflicts(item.getConflicts());
+        return error;
+    }
+
+    private static ImportRecordResource error(Long line, HttpStatus status, List<String> messages) {
+        var error = new ImportRecordResource();
+        error.setType(ERROR);
+        error.setLine(line);
+        error.setStatusCode(status.value());
+        error.setErrorMessages(messages);
+        return error;
+    }
+}
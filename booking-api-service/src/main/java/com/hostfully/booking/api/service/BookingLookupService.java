@@ -0,0 +1,109 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.BatchItemResultResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.LookupResultResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads many bookings by UUID in one request. Distinct UUIDs are resolved with IN queries of at most
+ * chunk-size values, each fetching the property and the guests in the same statement, and every requested
+ * item gets its own result in the order it was asked.
+ */
+@Service
+public class BookingLookupService {
+
+    private final BookingRepository repository;
+    private final BookingMapper mapper;
+    private final int maxSize;
+    private final int chunkSize;
+
+    public BookingLookupService(BookingRepository repository,
+                                BookingMapper mapper,
+                                @Value("${booking.lookup.max-size:1000}") int maxSize,
+                                @Value("${booking.lookup.chunk-size:250}") int chunkSize) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.maxSize = maxSize;
+        this.chunkSize = chunkSize;
+    }
+
+    public LookupResultResource findByUUIDs(List<String> uuids) throws ParameterValidationException {
+        if (uuids == null || uuids.isEmpty()) {
+            throw new ParameterValidationException("The lookup must have at least one UUID");
+        }
+        if (uuids.size() > maxSize) {
+            throw new ParameterValidationException("The lookup must have at most " + maxSize + " UUIDs");
+        }
+
+        var results = new BatchItemResultResource[uuids.size()];
+        var parsed = new UUID[uuids.size()];
+        var distinct = new LinkedHashSet<UUID>();
+        for (int i = 0; i < uuids.size(); i++) {
+            try {
+                parsed[i] = UUID.fromString(uuids.get(i));
+                distinct.add(parsed[i]);
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                results[i] = failure(i, HttpStatus.BAD_REQUEST, "The Booking ID must be a valid UUID");
+            }
+        }
+
+        var found = new HashMap<UUID, BookingResponseResource>();
+        var pending = new ArrayList<>(distinct);
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            repository.findDetailedByUuidIn(pending.subList(from, Math.min(from + chunkSize, pending.size())))
+                    .forEach(booking -> found.put(booking.getUuid(), toResource(booking)));
+        }
+
+        for (int i = 0; i < parsed.length; i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            var booking = found.get(parsed[i]);
+            if (booking == null) {
+                results[i] = failure(i, HttpStatus.NOT_FOUND, "The Booking was not found in the Database");
+            } else {
+                results[i] = result(i, HttpStatus.OK);
+                results[i].setBooking(booking);
+            }
+        }
+
+        var result = new LookupResultResource();
+        result.setResults(List.of(results));
+        result.setFoundCount((int) result.getResults().stream()
+                .filter(item -> item.getStatusCode() == HttpStatus.OK.value())
+                .count());
+        result.setMissingCount(uuids.size() - result.getFoundCount());
+        return result;
+    }
+
+    private BookingResponseResource toResource(Booking booking) {
+        return mapper.toResource(booking);
+    }
+
+    private static BatchItemResultResource failure(int index, HttpStatus status, String message) {
+        var result = result(index, status);
+        result.setErrorMessages(List.of(message));
+        return result;
+    }
+
+    private static BatchItemResultResource result(int index, HttpStatus status) {
+        var result = new BatchItemResultResource();
+        result.setIndex(index);
+        result.setStatusCode(status.value());
+        result.setStatusName(status.getReasonPhrase());
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.helper.KeysetCursor;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.mapper.GuestMapper;
+import com.hostfully.booking.api.mapper.PropertyMapper;
+import com.hostfully.booking.api.repository.BookingSearchRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.resource.BookingFields;
+import com.hostfully.booking.api.resource.BookingFields.Field;
+import com.hostfully.booking.api.resource.BookingPageResource;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Lists bookings page by page. The cursor is an opaque token holding the initial date and the id of the last
+ * booking returned, and the next page starts right after it. The fields parameter limits both what is read from
+ * the database and what is serialized.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingSearchService {
+
+    private final BookingSearchRepository repository;
+    private final PropertyRepository propertyRepository;
+    private final BookingMapper mapper;
+    private final PropertyMapper propertyMapper;
+    private final GuestMapper guestMapper;
+
+    public BookingPageResource findBookings(String propertyId, LocalDate from, LocalDate to, String status,
+                                            String cursor, Integer limit) throws ParameterValidationException {
+        return findBookings(propertyId, from, to, status, cursor, limit, null);
+    }
+
+    public BookingPageResource findBookings(String propertyId, LocalDate from, LocalDate to, String status,
+                                            String cursor, Integer limit, String fields) throws ParameterValidationException {
+        var size = KeysetCursor.limitOf(limit);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ParameterValidationException("The from date must not be after the to date");
+        }
+
+        var requested = BookingFields.parse(fields);
+        var after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        var criteria = new BookingSearchRepository.Criteria(resolveProperty(propertyId), resolveStatus(status), from, to,
+                after == null ? null : after.beginAt(), after == null ? null : after.id());
+
+        // One extra row tells whether there is a next page without counting
+        var bookings = repository.findPage(criteria, size + 1, associationsOf(requested));
+        var page = new BookingPageResource();
+        page.setItems(bookings.stream()
+                .limit(size)
+                .map(booking -> toResource(booking, requested))
+                .toList());
+        if (bookings.size() > size) {
+            page.setNextCursor(encodeCursor(bookings.get(size - 1)));
+        }
+        return page;
+    }
+
+    /**
+     * Booking with only the associations needed by the requested fields.
+     */
+    public Optional<Booking> findBooking(UUID uuid, BookingFields fields) {
+        return repository.findByUuid(uuid, associationsOf(fields));
+    }
+
+    /**
+     * Resource holding only the requested fields, so the associations left out are never touched.
+     */
+    public BookingResponseResource toResource(Booking booking, BookingFields fields) {
+        if (fields.isAll()) {
+            return mapper.toResource(booking);
+        }
+
+        var resource = new BookingResponseResource();
+        resource.setUuid(booking.getUuid().toString());
+        resource.setVersion(booking.getVersion());
+        if (fields.includes(Field.PROPERTY)) {
+            resource.setProperty(propertyMapper.toResource(booking.getProperty()));
+        }
+        if (fields.includes(Field.STATUS)) {
+            resource.setStatus(booking.getStatus().name());
+        }
+        if (fields.includes(Field.BEGIN_AT)) {
+            resource.setBeginAt(booking.getBeginAt());
+        }
+        if (fields.includes(Field.END_AT)) {
+            resource.setEndAt(booking.getEndAt());
+        }
+        if (fields.includes(Field.GUESTS)) {
+            resource.setGuests(booking.getGuests().stream()
+                    .map(guestMapper::toResource)
+                    .toList());
+        }
+        return resource;
+    }
+
+    private static BookingSearchRepository.Associations associationsOf(BookingFields fields) {
+        return new BookingSearchRepository.Associations(fields.includes(Field.PROPERTY), fields.includes(Field.GUESTS));
+    }
+
+    private Long resolveProperty(String propertyId) throws ParameterValidationException {
+        if (propertyId == null || propertyId.isBlank()) {
+            return null;
+        }
+        try {
+            return propertyRepository.findByUuid(UUID.fromString(propertyId))
+                    .map(Property::getId)
+                    .orElseThrow(() -> new ObjectNotFoundException(Property.class));
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterValidationException(ex.getMessage());
+        }
+    }
+
+    private static BookingStatus resolveStatus(String status) throws ParameterValidationException {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return BookingStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterValidationException("The status must be one of BOOKED, CANCELED or BLOCKED");
+        }
+    }
+
+    static String encodeCursor(Booking booking) {
+        return KeysetCursor.encode(booking.getBeginAt(), booking.getId());
+    }
+
+    static Cursor decodeCursor(String cursor) throws ParameterValidationException {
+        return KeysetCursor.decode(cursor, 2, keys -> new Cursor(LocalDate.parse(keys[0]), Long.valueOf(keys[1])));
+    }
+
+    record Cursor(LocalDate beginAt, Long id) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.hostfully.booking.api.service;
 
+import com.hostfully.booking.api.cache.BookingResponseCache;
+import com.hostfully.booking.api.cache.CachedBooking;
 import com.hostfully.booking.api.entity.Booking;
 import com.hostfully.booking.api.entity.BookingStatus;
 import com.hostfully.booking.api.entity.Guest;
@@ -8,73 +10,112 @@ import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ObjectNotFoundException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
 import com.hostfully.booking.api.helper.BookingHelper;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.mapper.BookingMapper;
 import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.BookingFields;
 import com.hostfully.booking.api.resource.BookingRequestResource;
 import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
     private final BookingHelper helper;
-    private final ModelMapper mapper;
+    private final BookingMapper mapper;
     private final BookingRepository repository;
+    private final PropertyLockManager lockManager;
+    private final EntityManager entityManager;
 
     private final PropertyService propertyService;
     private final GuestService guestService;
+    private final BookingResponseCache responseCache;
+    private final BookingSearchService searchService;
 
     public BookingResponseResource createBooking(BookingRequestResource resource) throws BusinessException {
-        var property = propertyService.findByUUID(resource.getPropertyId())
+        var property = propertyService.findEntity(resource.getPropertyId())
                 .orElseThrow(() -> new ObjectNotFoundException(Property.class));
 
-        helper.validateOverlappedDates(0L, property.getUuid(), resource.getBeginAt(), resource.getEndAt());
-
-        var entity = mapper.map(resource, Booking.class);
-        entity.setProperty(mapper.map(property, Property.class));
-        entity.setStatus(BookingStatus.BOOKED);
+        var persisted = lockManager.executeLocked(property.getId(), property.getUuid(), () -> {
+            helper.validateOverlappedDates(0L, property.getUuid(), resource.getBeginAt(), resource.getEndAt());
 
-        var persisted = repository.save(entity);
-        return mapper.map(persisted, BookingResponseResource.class);
+            var entity = mapper.toEntity(resource);
+            entity.setProperty(property);
+            entity.setStatus(BookingStatus.BOOKED);
+            guestService.linkExistingGuests(List.of(entity));
+            return saveAndPublish(entity);
+        });
+        return mapper.toResource(persisted);
     }
 
     public BookingResponseResource updateBooking(String uuid, BookingRequestResource requestResource) throws ParameterValidationException, BusinessException {
+        return updateBooking(uuid, requestResource, null);
+    }
+
+    public BookingResponseResource updateBooking(String uuid, BookingRequestResource requestResource, Long expectedVersion)
+            throws ParameterValidationException, BusinessException {
         var booking = helper.findBookingOrElseThrow(uuid);
 
         if (helper.isNotBooking(booking.getStatus()) || !booking.getStatus().equals(BookingStatus.BOOKED)) {
             throw new BusinessException("You can update bookings only with BOOKED status");
         }
+        helper.validateVersion(booking, expectedVersion);
+
+        var updated = lockManager.executeLocked(booking.getProperty().getId(), booking.getProperty().getUuid(), () -> {
+            helper.validateOverlappedDates(booking.getId(), booking.getProperty().getUuid(), requestResource.getBeginAt(), requestResource.getEndAt());
+            var previousGuests = List.copyOf(booking.getGuests());
+
+            var sharedGuestIds = guestService.lockShared(booking);
+            var mergedBooking = helper.mergeEntityToUpdate(requestResource, booking, sharedGuestIds);
+            guestService.linkExistingGuests(List.of(mergedBooking));
+            return saveMergedAndPublish(mergedBooking, previousGuests);
+        });
+        return mapper.toResource(updated);
+    }
 
-        helper.validateOverlappedDates(booking.getId(), booking.getProperty().getUuid(), requestResource.getBeginAt(), requestResource.getEndAt());
-        removeDetachedGuests(booking);
-
-        var mergedBooking = helper.mergeEntityToUpdate(requestResource, booking);
-        var updated = repository.save(mergedBooking);
-        return mapper.map(updated, BookingResponseResource.class);
+    public BookingResponseResource cancelBooking(String bookingUuid) throws ParameterValidationException, BusinessException {
+        return cancelBooking(bookingUuid, null);
     }
 
-    public void cancelBooking(String bookingUuid) throws ParameterValidationException, BusinessException {
+    public BookingResponseResource cancelBooking(String bookingUuid, Long expectedVersion) throws ParameterValidationException, BusinessException {
         var booking = helper.findBookingOrElseThrow(bookingUuid);
         if (helper.isNotBooking(booking.getStatus()) || !booking.getStatus().equals(BookingStatus.BOOKED)) {
             throw new BusinessException("You can cancel bookings only with BOOKED status");
         }
+        helper.validateVersion(booking, expectedVersion);
 
         booking.setStatus(BookingStatus.CANCELED);
-        repository.save(booking);
+        var canceled = lockManager.executeLocked(booking.getProperty().getId(), booking.getProperty().getUuid(), () -> saveAndPublish(booking));
+        return mapper.toResource(canceled);
+    }
+
+    public BookingResponseResource rebookBooking(String uuid) throws ParameterValidationException, BusinessException {
+        return rebookBooking(uuid, null);
     }
 
-    public void rebookBooking(String uuid) throws ParameterValidationException, BusinessException {
+    public BookingResponseResource rebookBooking(String uuid, Long expectedVersion) throws ParameterValidationException, BusinessException {
         var booking = helper.findBookingOrElseThrow(uuid);
         if (helper.isNotBooking(booking.getStatus()) || !booking.getStatus().equals(BookingStatus.CANCELED)) {
             throw new BusinessException("You can rebook bookings with CANCELED status");
         }
+        helper.validateVersion(booking, expectedVersion);
 
-        helper.validateOverlappedDates(booking.getId(), booking.getProperty().getUuid(), booking.getBeginAt(), booking.getEndAt());
+        var rebooked = lockManager.executeLocked(booking.getProperty().getId(), booking.getProperty().getUuid(), () -> {
+            helper.validateOverlappedDates(booking.getId(), booking.getProperty().getUuid(), booking.getBeginAt(), booking.getEndAt());
 
-        booking.setStatus(BookingStatus.BOOKED);
-        repository.save(booking);
+            booking.setStatus(BookingStatus.BOOKED);
+            return saveAndPublish(booking);
+        });
+        return mapper.toResource(rebooked);
     }
 
     public void deleteBooking(String uuid) throws ParameterValidationException, BusinessException {
@@ -83,18 +124,80 @@ public class BookingService {
             throw new BusinessException("You can delete bookings only with BOOKED or CANCELED status");
         }
 
-        removeDetachedGuests(booking);
-        repository.delete(booking);
+        lockManager.executeLocked(booking.getProperty().getId(), booking.getProperty().getUuid(), () -> {
+            helper.removeNights(booking);
+            repository.delete(booking);
+            repository.flush();
+            guestService.deleteOrphans(guestIds(booking.getGuests()));
+            helper.publishRemoved(booking);
+            return booking;
+        });
     }
 
     public BookingResponseResource findByUUID(String uuid) throws ParameterValidationException {
-        return mapper.map(helper.findBookingOrElseThrow(uuid), BookingResponseResource.class);
+        return mapper.toResource(helper.findBookingOrElseThrow(uuid));
+    }
+
+    /**
+     * Booking with only the requested fields, reading the property and the guests only when they are among them.
+     */
+    public BookingResponseResource findByUUID(String uuid, String fields) throws ParameterValidationException {
+        var requested = BookingFields.parse(fields);
+        return searchService.findBooking(helper.parseBookingUuid(uuid), requested)
+                .map(booking -> searchService.toResource(booking, requested))
+                .orElseThrow(() -> new ObjectNotFoundException(Booking.class));
+    }
+
+    /**
+     * Serialized booking from the response cache, read from the database only when it is not cached.
+     */
+    public CachedBooking findSerializedByUUID(String uuid) throws ParameterValidationException {
+        return findSerializedByUUID(uuid, ResponseFormat.JSON);
+    }
+
+    public CachedBooking findSerializedByUUID(String uuid, ResponseFormat format) throws ParameterValidationException {
+        return responseCache.find(helper.parseBookingUuid(uuid), format)
+                .orElseThrow(() -> new ObjectNotFoundException(Booking.class));
+    }
+
+    private Booking saveAndPublish(Booking booking) throws BusinessException {
+        var saved = repository.save(booking);
+        helper.storeNights(saved);
+        helper.publishSaved(saved);
+        return saved;
+    }
+
+    /**
+     * Flushes the merged booking, so BOOKING_GUEST no longer references the dropped guests when the ones left
+     * without bookings are deleted with a single statement. Changes limited to the guests leave the BOOKING row
+     * untouched, so its version is then incremented explicitly, keeping a new version, and ETag, for every update.
+     * The increment is optimistic, checked and written right before commit without locking the row.
+     */
+    private Booking saveMergedAndPublish(Booking booking, List<Guest> previousGuests) throws BusinessException {
+        var loadedVersion = booking.getVersion();
+        var saved = repository.saveAndFlush(booking);
+        if (Objects.equals(loadedVersion, saved.getVersion())) {
+            entityManager.lock(saved, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+
+        var savedIds = Set.copyOf(guestIds(saved.getGuests()));
+        var previousIds = guestIds(previousGuests);
+        guestService.deleteOrphans(previousIds.stream()
+                .filter(id -> !savedIds.contains(id))
+                .toList());
+        guestService.publishSharedChanges(saved.getId(), previousIds.stream()
+                .filter(savedIds::contains)
+                .toList());
+
+        helper.storeNights(saved);
+        helper.publishSaved(saved);
+        return saved;
     }
 
-    private void removeDetachedGuests(Booking booking) {
-        var guestIdsToRemove = booking.getGuests().stream()
+    private static List<Long> guestIds(List<Guest> guests) {
+        return guests.stream()
                 .map(Guest::getId)
+                .filter(Objects::nonNull)
                 .toList();
-        guestService.deleteGuestsById(guestIdsToRemove);
     }
 }
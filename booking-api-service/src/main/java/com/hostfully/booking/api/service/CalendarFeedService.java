@@ -0,0 +1,112 @@
+package com.hostfully.booking.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.calendar.CalendarFeed;
+import com.hostfully.booking.api.calendar.IcsWriter;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.BookingExportProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * iCalendar feed of the BOOKED and BLOCKED ranges of each property. The rendered bytes are cached per property
+ * until a booking of that property changes on this instance, or the TTL passes, which bounds how long a change
+ * made by another instance goes unseen. The ETag is derived from the events only, not from the DTSTAMP of the
+ * rendering, so every instance and every restart agree on it while the calendar is the same.
+ */
+@Service
+public class CalendarFeedService {
+
+    public static final String NAME = "calendar-feed";
+
+    private final BookingRepository repository;
+    private final PropertyRepository propertyRepository;
+
+    private final Cache<UUID, CalendarFeed> feeds;
+    private final Cache<UUID, Long> generations;
+
+    public CalendarFeedService(BookingRepository repository,
+                               PropertyRepository propertyRepository,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${booking.calendar-cache.max-size:10000}") long maxSize,
+                               @Value("${booking.calendar-cache.ttl:PT1M}") Duration ttl) {
+        this.repository = repository;
+        this.propertyRepository = propertyRepository;
+        this.feeds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, feeds, NAME));
+    }
+
+    public CalendarFeed findFeed(String propertyId) throws ParameterValidationException {
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(propertyId);
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterValidationException(ex.getMessage());
+        }
+
+        var cached = feeds.getIfPresent(uuid);
+        if (cached != null) {
+            return cached;
+        }
+
+        // A change committed while rendering bumps the generation, so the stale feed is served once and not cached
+        var generation = generations.asMap().getOrDefault(uuid, 0L);
+        var property = propertyRepository.findByUuid(uuid)
+                .orElseThrow(() -> new ObjectNotFoundException(Property.class));
+        var feed = render(property);
+        feeds.asMap().compute(uuid, (key, current) ->
+                generations.asMap().getOrDefault(key, 0L).equals(generation) ? feed : current);
+        return feed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        generations.asMap().merge(event.propertyUuid(), 1L, Long::sum);
+        feeds.invalidate(event.propertyUuid());
+    }
+
+    private CalendarFeed render(Property property) {
+        var renderedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        var entries = repository.findCalendarEntries(property.getId(), AvailabilityIndex.OCCUPYING_STATUSES);
+        var content = IcsWriter.write(property.getName(), entries, renderedAt);
+        return new CalendarFeed(content, eTagOf(property.getName(), entries), renderedAt);
+    }
+
+    static String eTagOf(String calendarName, List<BookingExportProjection> entries) {
+        var events = new StringBuilder(64 + entries.size() * 64).append(calendarName);
+        for (var entry : entries) {
+            events.append('\n').append(entry.getUuid())
+                    .append(' ').append(entry.getStatus())
+                    .append(' ').append(entry.getBeginAt())
+                    .append(' ').append(entry.getEndAt());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(events.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
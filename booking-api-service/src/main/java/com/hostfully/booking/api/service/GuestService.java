@@ -1,18 +1,247 @@
 package com.hostfully.booking.api.service;
 
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.entity.Guest;
+import com.hostfully.booking.api.event.GuestsChangedEvent;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.helper.KeysetCursor;
+import com.hostfully.booking.api.mapper.GuestMapper;
+import com.hostfully.booking.api.repository.BookingRepository;
 import com.hostfully.booking.api.repository.GuestRepository;
+import com.hostfully.booking.api.resource.GuestPageResource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Guests are shared by the bookings of the same person. A new guest is linked to a stored row only when every field
+ * sent matches it, so a document number or an email alone never exposes another customer, and a shared row is never
+ * changed in place. Guest rows are locked before being linked, changed or deleted, so a booking of another property
+ * cannot link a guest while it is changed or deleted as an orphan.
+ */
 @Service
 @RequiredArgsConstructor
 public class GuestService {
 
+    public static final int MIN_PREFIX_LENGTH = 2;
+
+    private final GuestMapper mapper;
     private final GuestRepository repository;
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Replaces the new guests of the bookings with the stored guests of the same identity, locking the candidates
+     * read with one query by document and one by email. New guests repeated across the bookings become a single
+     * guest, and a guest is never linked twice to the same booking.
+     */
+    public void linkExistingGuests(Collection<Booking> bookings) {
+        var incoming = bookings.stream()
+                .filter(booking -> booking.getGuests() != null)
+                .flatMap(booking -> booking.getGuests().stream())
+                .filter(guest -> guest.getId() == null)
+                .toList();
+        if (incoming.isEmpty()) {
+            return;
+        }
+
+        var known = new HashMap<Identity, Guest>();
+        findStored(incoming).forEach(stored -> known.putIfAbsent(Identity.of(stored), stored));
+        for (var booking : bookings) {
+            if (booking.getGuests() != null) {
+                link(booking.getGuests(), known);
+            }
+        }
+    }
+
+    /**
+     * Locks the current guests of the booking and returns those also referenced by another booking, which the
+     * update must leave as they are.
+     */
+    public Set<Long> lockShared(Booking booking) {
+        var ids = booking.getGuests().stream()
+                .map(Guest::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        repository.lockByIdIn(ids);
+        return Set.copyOf(repository.findIdsSharedWithOtherBookings(booking.getId(), ids));
+    }
+
+    /**
+     * Deletes with a single statement the guests no longer referenced by any booking. The removal of their
+     * BOOKING_GUEST rows has to be flushed before. The rows are locked first, so a link in progress commits before
+     * the delete checks the references, and a guest deleted here is no longer found by the link.
+     */
+    public void deleteOrphans(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            repository.lockByIdIn(ids);
+            repository.deleteOrphansByIdIn(ids);
+        }
+    }
+
+    /**
+     * Notifies that the guests, just written through the booking, are also part of the other bookings sharing them.
+     */
+    public void publishSharedChanges(Long bookingId, List<Long> guestIds) {
+        if (guestIds.isEmpty()) {
+            return;
+        }
+        var sharing = bookingRepository.findUuidsSharingGuests(bookingId, guestIds);
+        if (!sharing.isEmpty()) {
+            eventPublisher.publishEvent(new GuestsChangedEvent(sharing));
+        }
+    }
+
+    /**
+     * Guests by exact document, by exact email or by name prefix, only one of them at a time, ordered by the
+     * normalized name and the id, the cursor holding both of the last guest of the previous page.
+     */
+    public GuestPageResource searchGuests(String documentType, String documentNumber, String email, String name,
+                                          String cursor, Integer limit) throws ParameterValidationException {
+        var size = KeysetCursor.limitOf(limit);
+        var criteria = Stream.of(documentNumber != null || documentType != null, email != null, name != null)
+                .filter(Boolean::booleanValue)
+                .count();
+        if (criteria != 1) {
+            throw new ParameterValidationException("Search the guests by document, by email or by name, only one of them");
+        }
+
+        var after = cursor == null || cursor.isBlank() ? Position.FIRST : decodeCursor(cursor);
+        var page = PageRequest.ofSize(size + 1);
+        List<Guest> guests;
+        if (email != null) {
+            guests = repository.searchByEmail(Guest.normalize(email), after.name(), after.id(), page);
+        } else if (name != null) {
+            var prefix = Guest.normalize(name);
+            if (prefix == null || prefix.length() < MIN_PREFIX_LENGTH) {
+                throw new ParameterValidationException("The name prefix must have at least " + MIN_PREFIX_LENGTH + " characters");
+            }
+            guests = repository.searchByNameRange(prefix, upperBound(prefix).orElse(null), after.name(), after.id(), page);
+        } else {
+            if (documentType == null || documentNumber == null) {
+                throw new ParameterValidationException("The document type and number must be informed together");
+            }
+            guests = repository.searchByDocument(parseDocumentType(documentType), documentNumber, after.name(), after.id(), page);
+        }
+
+        var result = new GuestPageResource();
+        result.setItems(guests.stream()
+                .limit(size)
+                .map(mapper::toResource)
+                .toList());
+        if (guests.size() > size) {
+            var last = guests.get(size - 1);
+            result.setNextCursor(encodeCursor(new Position(last.getNormalizedName(), last.getId())));
+        }
+        return result;
+    }
+
+    private List<Guest> findStored(List<Guest> incoming) {
+        Predicate<Guest> documented = guest -> guest.getDocumentType() != null && guest.getDocumentNumber() != null;
+        var stored = new ArrayList<Guest>();
+        var withDocument = incoming.stream().filter(documented).toList();
+        if (!withDocument.isEmpty()) {
+            stored.addAll(repository.findByDocuments(
+                    withDocument.stream().map(Guest::getDocumentType).collect(Collectors.toSet()),
+                    withDocument.stream().map(Guest::getDocumentNumber).collect(Collectors.toSet())));
+        }
+        var emails = incoming.stream()
+                .filter(documented.negate())
+                .map(Guest::getNormalizedEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (!emails.isEmpty()) {
+            stored.addAll(repository.findByNormalizedEmails(emails));
+        }
+        // The oldest row wins when an identity was stored more than once
+        stored.sort(Comparator.comparing(Guest::getId));
+        return stored;
+    }
+
+    private static void link(List<Guest> guests, Map<Identity, Guest> known) {
+        var linked = Collections.newSetFromMap(new IdentityHashMap<Guest, Boolean>());
+        guests.stream().filter(guest -> guest.getId() != null).forEach(linked::add);
+        for (var iterator = guests.listIterator(); iterator.hasNext(); ) {
+            var guest = iterator.next();
+            if (guest.getId() != null) {
+                continue;
+            }
+            var identity = Identity.of(guest);
+            var resolved = identity == null ? guest : known.computeIfAbsent(identity, key -> guest);
+            if (!linked.add(resolved)) {
+                iterator.remove();
+            } else if (resolved != guest) {
+                iterator.set(resolved);
+            }
+        }
+    }
+
+    private static DocumentType parseDocumentType(String documentType) throws ParameterValidationException {
+        try {
+            return DocumentType.valueOf(documentType);
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterValidationException("The document type is not valid");
+        }
+    }
+
+    /**
+     * Smallest string after every string starting with the prefix. Trailing '\uffff' cannot be incremented and are
+     * dropped, and a prefix made only of them has no upper bound.
+     */
+    static Optional<String> upperBound(String prefix) {
+        var last = prefix.length() - 1;
+        while (last >= 0 && prefix.charAt(last) == Character.MAX_VALUE) {
+            last--;
+        }
+        return last < 0
+                ? Optional.empty()
+                : Optional.of(prefix.substring(0, last) + (char) (prefix.charAt(last) + 1));
+    }
+
+    static String encodeCursor(Position position) {
+        // The name goes last, as it may contain the separator
+        return KeysetCursor.encode(position.id(), position.name());
+    }
+
+    static Position decodeCursor(String cursor) throws ParameterValidationException {
+        return KeysetCursor.decode(cursor, 2, keys -> new Position(keys[1], Long.valueOf(keys[0])));
+    }
+
+    record Position(String name, Long id) {
+
+        static final Position FIRST = new Position("", 0L);
+    }
+
+    /**
+     * Every field of the guest as sent, for guests with a document or an email to look the stored rows up by.
+     */
+    private record Identity(String name, Integer age, String email, DocumentType documentType, String documentNumber) {
 
-    public void deleteGuestsById(List<Long> ids) {
-        repository.deleteAllById(ids);
+        static Identity of(Guest guest) {
+            if (guest.getNormalizedEmail() == null && (guest.getDocumentType() == null || guest.getDocumentNumber() == null)) {
+                return null;
+            }
+            return new Identity(guest.getName(), guest.getAge(), guest.getEmail(), guest.getDocumentType(), guest.getDocumentNumber());
+        }
     }
 }
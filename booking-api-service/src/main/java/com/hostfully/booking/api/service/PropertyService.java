@@ -1,10 +1,17 @@
 package com.hostfully.booking.api.service;
 
+import com.hostfully.booking.api.cache.PropertyCache;
 import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.helper.KeysetCursor;
+import com.hostfully.booking.api.mapper.PropertyMapper;
 import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.PropertyProjection;
+import com.hostfully.booking.api.resource.PropertyPageResource;
 import com.hostfully.booking.api.resource.PropertyResource;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -14,14 +21,64 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PropertyService {
 
-    private final ModelMapper modelMapper;
+    private final PropertyMapper mapper;
     private final PropertyRepository repository;
+    private final PropertyCache propertyCache;
 
     public Optional<PropertyResource> findByUUID(String uuid) {
-        var entity = repository.findByUuid(UUID.fromString(uuid)).orElseGet(Property::new);
-        if (entity.isEmpty()) {
-            return Optional.empty();
+        return findEntity(uuid).map(mapper::toResource);
+    }
+
+    /**
+     * Cached entity of the property, to be referenced by new bookings without reading it again.
+     */
+    public Optional<Property> findEntity(String uuid) {
+        return propertyCache.find(UUID.fromString(uuid));
+    }
+
+    public PropertyResource findProperty(String uuid) throws ParameterValidationException {
+        try {
+            return repository.findProjectionByUuid(UUID.fromString(uuid))
+                    .map(PropertyService::toResource)
+                    .orElseThrow(() -> new ObjectNotFoundException(Property.class));
+        } catch (IllegalArgumentException ex) {
+            throw new ParameterValidationException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Properties ordered by their id, the cursor holding the id of the last property of the previous page.
+     */
+    public PropertyPageResource findProperties(String cursor, Integer limit) throws ParameterValidationException {
+        var size = KeysetCursor.limitOf(limit);
+
+        var afterId = cursor == null || cursor.isBlank() ? 0L : decodeCursor(cursor);
+        var properties = repository.findPageAfter(afterId, PageRequest.ofSize(size + 1));
+        var page = new PropertyPageResource();
+        page.setItems(properties.stream()
+                .limit(size)
+                .map(PropertyService::toResource)
+                .toList());
+        if (properties.size() > size) {
+            page.setNextCursor(encodeCursor(properties.get(size - 1).getId()));
         }
-        return Optional.of(modelMapper.map(entity, PropertyResource.class));
+        return page;
+    }
+
+    private static PropertyResource toResource(PropertyProjection projection) {
+        var resource = new PropertyResource();
+        resource.setId(projection.getId());
+        resource.setUuid(projection.getUuid());
+        resource.setName(projection.getName());
+        resource.setDescription(projection.getDescription());
+        return resource;
+    }
+
+    static String encodeCursor(Long id) {
+        return KeysetCursor.encode(id);
+    }
+
+    static Long decodeCursor(String cursor) throws ParameterValidationException {
+        return KeysetCursor.decode(cursor, 1, keys -> Long.valueOf(keys[0]));
     }
 }
@@ -0,0 +1,264 @@
+package com.hostfully.booking.api.availability;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.BookingIntervalProjection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityIndexTest {
+
+    private static final UUID PROPERTY_UUID = UUID.fromString("c0f926fa-5d63-4d33-8476-74ce938d6bff");
+
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, '2024-09-10', '2024-10-30', true",
+            "0, '2024-11-01', '2024-12-31', true",
+            "0, '2024-10-20', '2024-11-10', true",
+            "0, '2024-11-11', '2024-11-11', true",
+            "0, '2024-09-01', '2024-09-30', false",
+            "0, '2024-11-15', '2024-11-20', false",
+            "1, '2024-10-01', '2024-11-20', false",
+            "2, '2024-10-10', '2024-10-10', true"
+    })
+    void hasOverlappingDatesTest_IndexMode(Long bookingId, LocalDate beginDate, LocalDate endDate, boolean expected) {
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of(
+                        interval(1L, LocalDate.of(2024, 10, 10), LocalDate.of(2024, 11, 11)),
+                        interval(2L, LocalDate.of(2024, 11, 21), LocalDate.of(2024, 12, 22))));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false);
+
+        assertEquals(expected, index.hasOverlappingDates(bookingId, PROPERTY_UUID, beginDate, endDate));
+        verify(repository, never()).hasOverlappingDates(anyLong(), any(UUID.class), anyList(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void hasOverlappingDatesTest_CalendarLoadedOnlyOnce() {
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of());
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false);
+
+        index.hasOverlappingDates(0L, PROPERTY_UUID, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 5));
+        index.hasOverlappingDates(0L, PROPERTY_UUID, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 5));
+
+        verify(repository, times(1)).findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES);
+    }
+
+    @Test
+    void findConflictTest_IndexModeUnderLease_ReadsTheStoredRows() {
+        var begin = LocalDate.now().plusDays(10);
+        // The second check sees a booking committed by another instance, which never reaches this index
+        when(repository.hasOverlappingDates(0L, PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES, begin, begin.plusDays(1)))
+                .thenReturn(false)
+                .thenReturn(true);
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of(interval(1L, begin, begin.plusDays(2))));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false, true);
+
+        assertTrue(index.findConflict(0L, PROPERTY_UUID, begin, begin.plusDays(1)).isEmpty());
+        assertEquals(1, index.findConflict(0L, PROPERTY_UUID, begin, begin.plusDays(1)).orElseThrow().conflicts().size());
+        // The calendar is only read to describe the conflict
+        verify(repository, times(1)).findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES);
+    }
+
+    @Test
+    void onBookingChangedTest_SavedCanceledAndRemoved() {
+        when(repository.findAllIntervals(AvailabilityIndex.OCCUPYING_STATUSES)).thenReturn(List.of());
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, true);
+        index.preload();
+
+        var begin = LocalDate.of(2024, 6, 1);
+        var end = LocalDate.of(2024, 6, 10);
+        index.onBookingChanged(event(BookingStatus.BOOKED, begin, end, false));
+        assertTrue(index.hasOverlappingDates(0L, PROPERTY_UUID, end, end.plusDays(3)));
+        assertFalse(index.hasOverlappingDates(7L, PROPERTY_UUID, end, end.plusDays(3)));
+
+        index.onBookingChanged(event(BookingStatus.BOOKED, begin.plusDays(20), end.plusDays(20), false));
+        assertFalse(index.hasOverlappingDates(0L, PROPERTY_UUID, begin, end));
+
+        index.onBookingChanged(event(BookingStatus.CANCELED, begin.plusDays(20), end.plusDays(20), false));
+        assertFalse(index.hasOverlappingDates(0L, PROPERTY_UUID, begin.plusDays(20), end.plusDays(20)));
+
+        index.onBookingChanged(event(BookingStatus.BLOCKED, begin, end, false));
+        assertTrue(index.hasOverlappingDates(0L, PROPERTY_UUID, begin, begin));
+
+        index.onBookingChanged(event(BookingStatus.BLOCKED, begin, end, true));
+        assertFalse(index.hasOverlappingDates(0L, PROPERTY_UUID, begin, begin));
+    }
+
+    @Test
+    void loadAllTest_EventDuringTheLoad_IsReplayedOverTheBulkRead() {
+        var begin = LocalDate.of(2024, 6, 1);
+        var end = LocalDate.of(2024, 6, 10);
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false);
+        // The booking is moved after the bulk read started, so the read still returns the old dates
+        when(repository.findAllIntervals(AvailabilityIndex.OCCUPYING_STATUSES)).thenAnswer(invocation -> {
+            index.onBookingChanged(event(BookingStatus.BOOKED, begin.plusDays(20), end.plusDays(20), false));
+            return List.of(interval(7L, begin, end));
+        });
+
+        index.loadAll();
+
+        assertFalse(index.hasOverlappingDates(0L, PROPERTY_UUID, begin, end));
+        assertTrue(index.hasOverlappingDates(0L, PROPERTY_UUID, begin.plusDays(20), end.plusDays(20)));
+    }
+
+    @Test
+    void hasOverlappingDatesTest_VerifyMode_QueryWinsAndCalendarIsReloaded() {
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of())
+                .thenReturn(List.of(interval(3L, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 5))));
+        when(repository.hasOverlappingDates(0L, PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES,
+                LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3))).thenReturn(true);
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.VERIFY, false);
+
+        assertTrue(index.hasOverlappingDates(0L, PROPERTY_UUID, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3)));
+        assertEquals(1, index.calendarOf(PROPERTY_UUID).size());
+    }
+
+    @Test
+    void findAvailablePropertiesTest_ReturnsOnlyFreeProperties() {
+        var freeProperty = UUID.fromString("cb4b2cee-48da-4c8b-aac1-c15a6f24331c");
+        var emptyProperty = UUID.fromString("834a61e8-57f4-46e4-a324-41598247921d");
+        when(propertyRepository.findAllUuids()).thenReturn(List.of(PROPERTY_UUID, freeProperty, emptyProperty));
+        when(repository.findAllIntervals(AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of(interval(1L, LocalDate.of(2024, 10, 10), LocalDate.of(2024, 11, 11))));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false);
+
+        var available = index.findAvailableProperties(LocalDate.of(2024, 11, 1), LocalDate.of(2024, 11, 5));
+
+        assertEquals(2, available.size());
+        assertTrue(available.containsAll(List.of(freeProperty, emptyProperty)));
+        assertFalse(available.contains(PROPERTY_UUID));
+    }
+
+    @Test
+    void findAvailablePropertiesTest_QueryMode_ReadsTheDatabaseOnEveryCall() {
+        var from = LocalDate.of(2024, 11, 1);
+        var to = LocalDate.of(2024, 11, 5);
+        when(propertyRepository.findUuidsAvailableBetween(AvailabilityIndex.OCCUPYING_STATUSES, from, to))
+                .thenReturn(List.of(PROPERTY_UUID))
+                .thenReturn(List.of());
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of())
+                .thenReturn(List.of(interval(1L, from, to)));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.QUERY, false);
+
+        // A booking committed between the calls is seen by the second one
+        assertEquals(List.of(PROPERTY_UUID), index.findAvailableProperties(from, to));
+        assertEquals(List.of(), index.findAvailableProperties(from, to));
+        assertEquals(0, index.calendarOf(PROPERTY_UUID).size());
+        assertEquals(1, index.calendarOf(PROPERTY_UUID).size());
+        verify(repository, never()).findAllIntervals(anyList());
+    }
+
+    @Test
+    void findAvailablePropertiesTest_IndexModeUnderLease_ReadsTheDatabaseOnEveryCall() {
+        var from = LocalDate.of(2024, 11, 1);
+        var to = LocalDate.of(2024, 11, 5);
+        when(propertyRepository.findUuidsAvailableBetween(AvailabilityIndex.OCCUPYING_STATUSES, from, to))
+                .thenReturn(List.of(PROPERTY_UUID))
+                .thenReturn(List.of());
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of())
+                .thenReturn(List.of(interval(1L, from, to)));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, true, true);
+        index.preload();
+
+        // Bookings committed by another instance are seen by the next read
+        assertEquals(List.of(PROPERTY_UUID), index.findAvailableProperties(from, to));
+        assertEquals(List.of(), index.findAvailableProperties(from, to));
+        assertEquals(0, index.calendarOf(PROPERTY_UUID).size());
+        assertEquals(1, index.calendarOf(PROPERTY_UUID).size());
+        verify(repository, never()).findAllIntervals(anyList());
+    }
+
+    @Test
+    void findConflictTest_ReturnsConflictsAndNearestWindows() {
+        var today = LocalDate.now();
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of(
+                        interval(1L, today.plusDays(2), today.plusDays(4)),
+                        interval(2L, today.plusDays(10), today.plusDays(15)),
+                        interval(3L, today.plusDays(18), today.plusDays(20))));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false);
+
+        var conflict = index.findConflict(0L, PROPERTY_UUID, today.plusDays(12), today.plusDays(14)).orElseThrow();
+
+        assertEquals(1, conflict.conflicts().size());
+        assertEquals(2L, conflict.conflicts().get(0).bookingId());
+        assertEquals(new FreeWindow(today.plusDays(7), today.plusDays(9)), conflict.previousWindow());
+        assertEquals(new FreeWindow(today.plusDays(21), today.plusDays(23)), conflict.nextWindow());
+        assertTrue(index.findConflict(2L, PROPERTY_UUID, today.plusDays(12), today.plusDays(14)).isEmpty());
+    }
+
+    @Test
+    void findConflictTest_NoFreeWindowBeforeToday() {
+        var today = LocalDate.now();
+        when(repository.findIntervalsByProperty(PROPERTY_UUID, AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of(interval(1L, today, today.plusDays(4))));
+        var index = new AvailabilityIndex(repository, propertyRepository, AvailabilityMode.INDEX, false);
+
+        var conflict = index.findConflict(0L, PROPERTY_UUID, today.plusDays(1), today.plusDays(3)).orElseThrow();
+
+        assertNull(conflict.previousWindow());
+        assertEquals(new FreeWindow(today.plusDays(5), today.plusDays(7)), conflict.nextWindow());
+        assertEquals(new FreeWindow(today.plusDays(5), today.plusDays(7)), index.nextFreeWindow(PROPERTY_UUID, today, 2));
+    }
+
+    private static BookingChangedEvent event(BookingStatus status, LocalDate begin, LocalDate end, boolean removed) {
+        return new BookingChangedEvent(7L, UUID.randomUUID(), PROPERTY_UUID, status, begin, end, removed);
+    }
+
+    private static BookingIntervalProjection interval(Long id, LocalDate beginAt, LocalDate endAt) {
+        return new BookingIntervalProjection() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getPropertyUuid() {
+                return PROPERTY_UUID;
+            }
+
+            @Override
+            public LocalDate getBeginAt() {
+                return beginAt;
+            }
+
+            @Override
+            public LocalDate getEndAt() {
+                return endAt;
+            }
+        };
+    }
+}
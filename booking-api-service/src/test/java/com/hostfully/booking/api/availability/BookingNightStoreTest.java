@@ -0,0 +1,73 @@
+package com.hostfully.booking.api.availability;
+
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.exception.BookingConflictException;
+import com.hostfully.booking.api.repository.BookingNightRepository;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.utils.ObjectMockUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingNightStoreTest {
+
+    @Mock
+    private BookingNightRepository nightRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @Test
+    void storeTest_IndexMode_DoesNothing() throws BookingConflictException {
+        var store = new BookingNightStore(nightRepository, bookingRepository, availabilityIndex, AvailabilityMode.INDEX);
+
+        store.store(ObjectMockUtils.getSavedBookingMockHappyPath());
+        store.remove(ObjectMockUtils.getSavedBookingMockHappyPath());
+
+        verifyNoInteractions(nightRepository, bookingRepository);
+    }
+
+    @Test
+    void storeTest_CanceledBooking_OnlyReleasesNights() throws BookingConflictException {
+        var store = new BookingNightStore(nightRepository, bookingRepository, availabilityIndex, AvailabilityMode.NIGHTS);
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setStatus(BookingStatus.CANCELED);
+
+        store.store(booking);
+
+        verify(nightRepository).deleteNights(1L);
+        verify(nightRepository, never()).insertNights(any(), any(), any(), any());
+    }
+
+    @Test
+    void storeTest_TakenNight_MustThrowBookingConflictException() {
+        var store = new BookingNightStore(nightRepository, bookingRepository, availabilityIndex, AvailabilityMode.NIGHTS);
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        var conflict = new AvailabilityConflict(List.of(OccupiedRange.of(2L, booking.getBeginAt(), booking.getEndAt())), null, null);
+        doThrow(new DuplicateKeyException("PK_BOOKING_NIGHT"))
+                .when(nightRepository).insertNights(1L, booking.getProperty().getId(), booking.getBeginAt(), booking.getEndAt());
+        when(availabilityIndex.describeConflict(1L, booking.getProperty().getUuid(), booking.getBeginAt(), booking.getEndAt()))
+                .thenReturn(conflict);
+
+        var except = assertThrows(BookingConflictException.class, () -> store.store(booking));
+
+        assertEquals(BookingConflictException.OVERLAPPING_DATES, except.getMessage());
+        assertEquals(conflict, except.getConflict());
+        verify(bookingRepository).flush();
+    }
+}
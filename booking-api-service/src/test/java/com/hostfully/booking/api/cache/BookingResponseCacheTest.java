@@ -0,0 +1,172 @@
+package com.hostfully.booking.api.cache;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.Guest;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.projection.BookingDetailProjection;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
+import com.hostfully.booking.api.utils.ObjectMockUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingResponseCacheTest {
+
+    @Mock
+    private BookingRepository repository;
+
+    private BookingResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookingResponseCache(repository, new Jackson2ObjectMapperBuilder(),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void findTest_SerializesOnceUntilTheBookingChanges() {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(3L);
+        when(repository.findDetailRowsByUuid(booking.getUuid())).thenReturn(detailRows(booking));
+        when(repository.findVersionByUuid(booking.getUuid())).thenReturn(Optional.of(3L));
+
+        var cached = cache.find(booking.getUuid()).orElseThrow();
+        assertSame(cached, cache.find(booking.getUuid()).orElseThrow());
+        assertEquals(3L, cached.version());
+        assertTrue(new String(cached.body(), StandardCharsets.UTF_8).contains("\"uuid\":\"" + booking.getUuid() + "\""));
+
+        cache.onBookingChanged(BookingChangedEvent.saved(booking));
+        cache.find(booking.getUuid());
+
+        verify(repository, times(2)).findDetailRowsByUuid(booking.getUuid());
+    }
+
+    @Test
+    void findTest_CachesEveryFormatApart() throws Exception {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(0L);
+        when(repository.findDetailRowsByUuid(booking.getUuid())).thenReturn(detailRows(booking));
+        when(repository.findVersionByUuid(booking.getUuid())).thenReturn(Optional.of(0L));
+
+        var json = cache.find(booking.getUuid(), ResponseFormat.JSON).orElseThrow();
+        var cbor = cache.find(booking.getUuid(), ResponseFormat.CBOR).orElseThrow();
+        assertSame(cbor, cache.find(booking.getUuid(), ResponseFormat.CBOR).orElseThrow());
+        assertTrue(cbor.body().length < json.body().length);
+        var decoded = new CBORMapper().findAndRegisterModules().readValue(cbor.body(), BookingResponseResource.class);
+        assertEquals(booking.getUuid().toString(), decoded.getUuid());
+        assertEquals(booking.getBeginAt(), decoded.getBeginAt());
+
+        cache.onBookingChanged(BookingChangedEvent.saved(booking));
+        cache.find(booking.getUuid(), ResponseFormat.JSON);
+        cache.find(booking.getUuid(), ResponseFormat.CBOR);
+
+        verify(repository, times(4)).findDetailRowsByUuid(booking.getUuid());
+    }
+
+    @Test
+    void findTest_ChangedByAnotherInstance_IsRenderedAgain() {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(3L);
+        var stale = detailRows(booking);
+        booking.setVersion(4L);
+        when(repository.findDetailRowsByUuid(booking.getUuid())).thenReturn(stale, detailRows(booking));
+        when(repository.findVersionByUuid(booking.getUuid())).thenReturn(Optional.of(4L));
+
+        assertEquals(3L, cache.find(booking.getUuid()).orElseThrow().version());
+        var current = cache.find(booking.getUuid()).orElseThrow();
+        assertEquals(4L, current.version());
+        assertSame(current, cache.find(booking.getUuid()).orElseThrow());
+
+        verify(repository, times(2)).findDetailRowsByUuid(booking.getUuid());
+    }
+
+    @Test
+    void findTest_DeletedByAnotherInstance_IsNotServed() {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(3L);
+        when(repository.findDetailRowsByUuid(booking.getUuid())).thenReturn(detailRows(booking), List.of());
+        when(repository.findVersionByUuid(booking.getUuid())).thenReturn(Optional.empty());
+
+        assertTrue(cache.find(booking.getUuid()).isPresent());
+        assertTrue(cache.find(booking.getUuid()).isEmpty());
+    }
+
+    @Test
+    void findTest_UnknownBooking_IsNotCached() {
+        var uuid = UUID.randomUUID();
+        when(repository.findDetailRowsByUuid(uuid)).thenReturn(List.of());
+
+        assertTrue(cache.find(uuid).isEmpty());
+        assertTrue(cache.find(uuid).isEmpty());
+
+        verify(repository, times(2)).findDetailRowsByUuid(uuid);
+    }
+
+    @Test
+    void toResourceTest_OneRowPerGuest() {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+
+        var resource = BookingResponseCache.toResource(detailRows(booking));
+
+        assertEquals(booking.getUuid().toString(), resource.getUuid());
+        assertEquals("BOOKED", resource.getStatus());
+        assertEquals(booking.getProperty().getUuid(), resource.getProperty().getUuid());
+        assertEquals(booking.getGuests().size(), resource.getGuests().size());
+        assertEquals(booking.getGuests().get(0).getName(), resource.getGuests().get(0).getName());
+
+        booking.setGuests(List.of());
+        assertTrue(BookingResponseCache.toResource(detailRows(booking)).getGuests().isEmpty());
+    }
+
+    private static List<BookingDetailProjection> detailRows(Booking booking) {
+        var factory = new SpelAwareProxyProjectionFactory();
+        var guests = booking.getGuests().isEmpty() ? Collections.<Guest>singletonList(null) : booking.getGuests();
+        return guests.stream().map(guest -> {
+            var row = new HashMap<String, Object>();
+            row.put("id", booking.getId());
+            row.put("uuid", booking.getUuid());
+            row.put("status", booking.getStatus());
+            row.put("beginAt", booking.getBeginAt());
+            row.put("endAt", booking.getEndAt());
+            row.put("version", booking.getVersion());
+            row.put("propertyId", booking.getProperty().getId());
+            row.put("propertyUuid", booking.getProperty().getUuid());
+            row.put("propertyName", booking.getProperty().getName());
+            row.put("propertyDescription", booking.getProperty().getDescription());
+            if (guest != null) {
+                row.put("guestUuid", guest.getUuid());
+                row.put("guestName", guest.getName());
+                row.put("guestAge", guest.getAge());
+                row.put("guestEmail", guest.getEmail());
+                row.put("guestDocumentType", guest.getDocumentType());
+                row.put("guestDocumentNumber", guest.getDocumentNumber());
+            }
+            return factory.createProjection(BookingDetailProjection.class, row);
+        }).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.hostfully.booking.api.cache;
+
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyCacheTest {
+
+    private static final UUID KNOWN = UUID.fromString("a50df57f-8554-4268-97c4-a0777f77317a");
+    private static final UUID OTHER = UUID.fromString("da26c68e-b6c6-47a7-a546-3f47621f0abc");
+
+    @Mock
+    private PropertyRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PropertyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        cache = new PropertyCache(repository, beanFactory.getBeanProvider(MeterRegistry.class),
+                100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void findTest_HitsAfterTheFirstLoadUntilInvalidated() {
+        var property = property(KNOWN);
+        when(repository.findByUuid(KNOWN)).thenReturn(Optional.of(property));
+
+        assertSame(property, cache.find(KNOWN).orElseThrow());
+        assertSame(property, cache.find(KNOWN).orElseThrow());
+        cache.invalidate(KNOWN);
+        cache.find(KNOWN);
+
+        verify(repository, times(2)).findByUuid(KNOWN);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", PropertyCache.NAME).tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void findTest_UnknownProperty_IsNotCached() {
+        when(repository.findByUuid(OTHER)).thenReturn(Optional.empty());
+
+        assertTrue(cache.find(OTHER).isEmpty());
+        assertTrue(cache.find(OTHER).isEmpty());
+
+        verify(repository, times(2)).findByUuid(OTHER);
+    }
+
+    @Test
+    void findAllTest_LoadsOnlyTheMissingProperties() {
+        var known = property(KNOWN);
+        var other = property(OTHER);
+        when(repository.findByUuid(KNOWN)).thenReturn(Optional.of(known));
+        when(repository.findAllByUuidIn(List.of(OTHER))).thenReturn(List.of(other));
+        cache.find(KNOWN);
+
+        var found = cache.findAll(List.of(KNOWN, OTHER));
+
+        assertSame(known, found.get(KNOWN));
+        assertSame(other, found.get(OTHER));
+    }
+
+    private static Property property(UUID uuid) {
+        var property = new Property();
+        property.setId(1L);
+        property.setUuid(uuid);
+        property.setName("Property");
+        return property;
+    }
+}
@@ -0,0 +1,28 @@
+package com.hostfully.booking.api.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IcsWriterTest {
+
+    @Test
+    void writeTest_EscapesAndFoldsLongLines() {
+        var name = "Beach house; sea view, " + "é".repeat(60);
+
+        var ics = new String(IcsWriter.write(name, List.of(), Instant.EPOCH), StandardCharsets.UTF_8);
+
+        var lines = ics.split("\r\n");
+        for (var line : lines) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+        assertTrue(lines[5].startsWith("X-WR-CALNAME:Beach house\\; sea view\\, é"));
+        assertTrue(lines[6].startsWith(" é"));
+        assertEquals("END:VCALENDAR", lines[lines.length - 1]);
+    }
+}
@@ -1,10 +1,18 @@
 package com.hostfully.booking.api.helper;
 
+import com.hostfully.booking.api.availability.AvailabilityConflict;
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.availability.BookingNightStore;
 import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.entity.Guest;
 import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ObjectNotFoundException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.exception.PreconditionFailedException;
+import com.hostfully.booking.api.mapper.GuestMapper;
 import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.GuestResource;
 import com.hostfully.booking.api.utils.ObjectMockUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,30 +21,40 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class BookingHelperTest {
 
     @Mock
-    private ModelMapper mapper;
+    private GuestMapper guestMapper;
     @Mock
     private BookingRepository repository;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BookingNightStore nightStore;
 
     @InjectMocks
     private BookingHelper helper;
@@ -45,9 +63,9 @@ class BookingHelperTest {
     @Test
     void validateOverlappedDatesTest_HasOverlap_MustThrowBusinessException() {
 
-        when(repository.hasOverlappingDates(
-                anyLong(), any(UUID.class), anyList(), any(LocalDate.class), any(LocalDate.class)))
-                .thenReturn(true);
+        when(availabilityIndex.findConflict(
+                anyLong(), any(UUID.class), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Optional.of(new AvailabilityConflict(List.of(), null, null)));
 
         var except = assertThrows(BusinessException.class,
                 () -> helper.validateOverlappedDates(100L,
@@ -59,6 +77,25 @@ class BookingHelperTest {
         assertEquals("Error on saving Booking. The dates selected overlaps another existing booking", except.getMessage());
     }
 
+    @ParameterizedTest
+    @CsvSource(value = {"3", "null"}, nullValues = {"null"})
+    void validateVersionTest_CurrentOrMissingVersion(Long expectedVersion) throws PreconditionFailedException {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(3L);
+
+        helper.validateVersion(booking, expectedVersion);
+    }
+
+    @Test
+    void validateVersionTest_StaleVersion_MustThrowPreconditionFailedException() {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(3L);
+
+        var except = assertThrows(PreconditionFailedException.class, () -> helper.validateVersion(booking, 2L));
+
+        assertEquals("The Booking was modified by another request. Reload it and try again", except.getMessage());
+    }
+
     @ParameterizedTest
     @CsvSource(value = {
             "'' , 'Invalid UUID string: '",
@@ -75,7 +112,7 @@ class BookingHelperTest {
 
     @Test
     void findBookingOrElseThrowTest_UUIDNotFound_MustThrowObjectNotFoundException() {
-        when(repository.findByUuid(UUID.fromString("55a6b2ea-7d44-40d3-8eb1-8967110d3df8")))
+        when(repository.findDetailedByUuid(UUID.fromString("55a6b2ea-7d44-40d3-8eb1-8967110d3df8")))
                 .thenReturn(Optional.empty());
         var except = assertThrows(ObjectNotFoundException.class,
                 () -> helper.findBookingOrElseThrow("55a6b2ea-7d44-40d3-8eb1-8967110d3df8"));
@@ -87,7 +124,7 @@ class BookingHelperTest {
     @Test
     void findBookingOrElseThrowTest_UUIDFound_MustReturnBooking() throws ParameterValidationException {
         var bookingMock = ObjectMockUtils.getSavedBookingMockHappyPath();
-        when(repository.findByUuid(UUID.fromString("55a6b2ea-7d44-40d3-8eb1-8967110d3df8")))
+        when(repository.findDetailedByUuid(UUID.fromString("55a6b2ea-7d44-40d3-8eb1-8967110d3df8")))
                 .thenReturn(Optional.of(ObjectMockUtils.getSavedBookingMockHappyPath()));
 
         var savedBooking = helper.findBookingOrElseThrow("55a6b2ea-7d44-40d3-8eb1-8967110d3df8");
@@ -153,4 +190,75 @@ class BookingHelperTest {
         assertFalse(resource.getGuests().isEmpty());
         assertEquals(resource.getGuests().size(), mergedBooking.getGuests().size());
     }
+
+    @Test
+    void mergeEntityToUpdateTest_MatchesGuestsByUuidAndDocument() {
+        var entity = ObjectMockUtils.getSavedBookingMockHappyPath();
+        entity.setGuests(new ArrayList<>(ObjectMockUtils.getGuestsMockHappyPath()));
+        var first = entity.getGuests().get(0);
+        first.setDocumentType(DocumentType.PASSPORT);
+        var second = entity.getGuests().get(1);
+
+        var byDocument = new GuestResource();
+        byDocument.setName("Renamed Guest");
+        byDocument.setDocumentType("PASSPORT");
+        byDocument.setDocumentNumber(first.getDocumentNumber());
+        var added = new GuestResource();
+        added.setName("New Guest");
+        var resource = ObjectMockUtils.getBookingRequestResourceMockHappyPath();
+        resource.setGuests(List.of(byDocument, added));
+        var newGuest = new Guest();
+        when(guestMapper.toEntity(added)).thenReturn(newGuest);
+
+        var mergedBooking = helper.mergeEntityToUpdate(resource, entity);
+        assertEquals(2, mergedBooking.getGuests().size());
+        assertSame(first, mergedBooking.getGuests().get(0));
+        assertSame(newGuest, mergedBooking.getGuests().get(1));
+        assertFalse(mergedBooking.getGuests().contains(second));
+        verify(guestMapper).updateEntity(byDocument, first);
+    }
+
+    @Test
+    void mergeEntityToUpdateTest_ChangedSharedGuest_IsReplaced() {
+        var entity = ObjectMockUtils.getSavedBookingMockHappyPath();
+        entity.setGuests(new ArrayList<>(ObjectMockUtils.getGuestsMockHappyPath()));
+        var shared = entity.getGuests().get(0);
+        var unchanged = entity.getGuests().get(1);
+
+        var renamed = new GuestResource();
+        renamed.setUuid(shared.getUuid().toString());
+        renamed.setName("Renamed Guest");
+        var same = new GuestResource();
+        same.setUuid(unchanged.getUuid().toString());
+        same.setName(unchanged.getName());
+        same.setAge(unchanged.getAge());
+        same.setEmail(unchanged.getEmail());
+        same.setDocumentType(unchanged.getDocumentType() == null ? null : unchanged.getDocumentType().name());
+        same.setDocumentNumber(unchanged.getDocumentNumber());
+        var resource = ObjectMockUtils.getBookingRequestResourceMockHappyPath();
+        resource.setGuests(List.of(renamed, same));
+        var copy = new Guest();
+        when(guestMapper.toEntity(renamed)).thenReturn(copy);
+
+        var mergedBooking = helper.mergeEntityToUpdate(resource, entity, Set.of(shared.getId(), unchanged.getId()));
+        // The other bookings keep the shared rows as they are
+        assertEquals(2, mergedBooking.getGuests().size());
+        assertSame(unchanged, mergedBooking.getGuests().get(0));
+        assertSame(copy, mergedBooking.getGuests().get(1));
+        verify(guestMapper, never()).updateEntity(any(), any());
+    }
+
+    @Test
+    void isSameGuestTest() {
+        var guest = ObjectMockUtils.getGuestsMockHappyPath().get(1);
+        var resource = new GuestResource();
+        resource.setUuid(guest.getUuid().toString().toUpperCase());
+        assertTrue(BookingHelper.isSameGuest(guest, resource));
+
+        resource.setUuid(UUID.randomUUID().toString());
+        assertFalse(BookingHelper.isSameGuest(guest, resource));
+
+        resource.setUuid(null);
+        assertFalse(BookingHelper.isSameGuest(guest, resource));
+    }
 }
@@ -0,0 +1,38 @@
+package com.hostfully.booking.api.helper;
+
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodeTest_LastKeyKeepsTheSeparator() throws ParameterValidationException {
+        var cursor = KeysetCursor.encode(42L, "joão: da silva");
+
+        assertArrayEquals(new String[]{"42", "joão: da silva"}, KeysetCursor.decode(cursor, 2, keys -> keys));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"invalid!", "MjAzMC0wMS0wMQ", "eDo3"})
+    void decodeTest_MalformedCursor_IsAValidationError(String cursor) {
+        assertEquals(KeysetCursor.INVALID_CURSOR, assertThrows(ParameterValidationException.class,
+                () -> KeysetCursor.decode(cursor, 2, keys -> LocalDate.parse(keys[0]).plusDays(Long.parseLong(keys[1]))))
+                .getMessage());
+    }
+
+    @Test
+    void limitOfTest() throws ParameterValidationException {
+        assertEquals(KeysetCursor.DEFAULT_LIMIT, KeysetCursor.limitOf(null));
+        assertEquals(KeysetCursor.MAX_LIMIT, KeysetCursor.limitOf(KeysetCursor.MAX_LIMIT));
+        assertEquals("The limit must be between 1 and 500",
+                assertThrows(ParameterValidationException.class, () -> KeysetCursor.limitOf(0)).getMessage());
+    }
+}
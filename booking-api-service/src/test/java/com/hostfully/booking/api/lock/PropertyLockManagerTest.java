@@ -0,0 +1,79 @@
+package com.hostfully.booking.api.lock;
+
+import com.hostfully.booking.api.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyLockManagerTest {
+
+    private static final UUID PROPERTY_UUID = UUID.fromString("c0f926fa-5d63-4d33-8476-74ce938d6bff");
+
+    @Test
+    void executeLockedTest_SameProperty_IsSerialized() throws Exception {
+        var lockManager = new PropertyLockManager(16, 5000);
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        var executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 64; i++) {
+            executor.submit(() -> lockManager.executeLocked(1L, PROPERTY_UUID, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                return running.decrementAndGet();
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, maxRunning.get());
+        assertEquals(64, lockManager.statistics().acquisitions());
+    }
+
+    @Test
+    void executeLockedTest_Timeout_MustThrowBusinessException() throws Exception {
+        var lockManager = new PropertyLockManager(1, 50);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var holder = new Thread(() -> {
+            try {
+                lockManager.executeLocked(1L, PROPERTY_UUID, () -> {
+                    locked.countDown();
+                    awaitUninterruptibly(release);
+                    return null;
+                });
+            } catch (BusinessException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        holder.start();
+        locked.await();
+
+        var except = assertThrows(BusinessException.class,
+                () -> lockManager.executeLocked(2L, UUID.randomUUID(), () -> null));
+        release.countDown();
+        holder.join();
+
+        assertEquals("The property is being updated by another request. Please try again", except.getMessage());
+        assertEquals(1, lockManager.statistics().timeouts());
+        assertEquals(1, lockManager.statistics().contended());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
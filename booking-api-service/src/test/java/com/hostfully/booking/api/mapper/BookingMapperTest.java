@@ -0,0 +1,48 @@
+package com.hostfully.booking.api.mapper;
+
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.utils.ObjectMockUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookingMapperTest {
+
+    private final BookingMapper mapper = new BookingMapperImpl(new PropertyMapperImpl(), new GuestMapperImpl());
+
+    @Test
+    void toResourceTest_MapsEveryField() {
+        var booking = ObjectMockUtils.getSavedBookingMockHappyPath();
+        booking.setVersion(2L);
+        booking.getGuests().get(0).setDocumentType(DocumentType.PASSPORT);
+
+        var resource = mapper.toResource(booking);
+
+        assertEquals(booking.getUuid().toString(), resource.getUuid());
+        assertEquals("BOOKED", resource.getStatus());
+        assertEquals(booking.getBeginAt(), resource.getBeginAt());
+        assertEquals(booking.getEndAt(), resource.getEndAt());
+        assertEquals(2L, resource.getVersion());
+        assertEquals(booking.getProperty().getUuid(), resource.getProperty().getUuid());
+        assertEquals(booking.getProperty().getDescription(), resource.getProperty().getDescription());
+        assertEquals(booking.getGuests().size(), resource.getGuests().size());
+        assertEquals("PASSPORT", resource.getGuests().get(0).getDocumentType());
+    }
+
+    @Test
+    void toEntityTest_LeavesPropertyStatusAndIdentityToTheServices() {
+        var resource = ObjectMockUtils.getBookingRequestResourceMockHappyPath();
+
+        var booking = mapper.toEntity(resource);
+
+        assertEquals(resource.getBeginAt(), booking.getBeginAt());
+        assertEquals(resource.getEndAt(), booking.getEndAt());
+        assertEquals(resource.getGuests().get(1).getName(), booking.getGuests().get(1).getName());
+        assertNull(booking.getGuests().get(1).getDocumentType());
+        assertNull(booking.getProperty());
+        assertNull(booking.getStatus());
+        assertNull(booking.getId());
+        assertNull(booking.getUuid());
+    }
+}
@@ -0,0 +1,27 @@
+package com.hostfully.booking.api.resource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseFormatTest {
+
+    @Test
+    void negotiateTest_PrefersJsonUnlessABinaryFormatIsPreferred() {
+        assertEquals(Optional.of(ResponseFormat.JSON), ResponseFormat.negotiate(null));
+        assertEquals(Optional.of(ResponseFormat.JSON), ResponseFormat.negotiate("*/*"));
+        assertEquals(Optional.of(ResponseFormat.JSON), ResponseFormat.negotiate("application/cbor, application/json"));
+        assertEquals(Optional.of(ResponseFormat.CBOR), ResponseFormat.negotiate("application/cbor"));
+        assertEquals(Optional.of(ResponseFormat.CBOR), ResponseFormat.negotiate("application/json;q=0.5, application/cbor"));
+        assertEquals(Optional.of(ResponseFormat.SMILE), ResponseFormat.negotiate("application/x-jackson-smile, */*;q=0.1"));
+    }
+
+    @Test
+    void negotiateTest_NothingAcceptable_IsEmpty() {
+        assertEquals(Optional.empty(), ResponseFormat.negotiate("text/plain"));
+        assertEquals(Optional.empty(), ResponseFormat.negotiate("application/json;q=0"));
+        assertEquals(Optional.empty(), ResponseFormat.negotiate("not a media type"));
+    }
+}
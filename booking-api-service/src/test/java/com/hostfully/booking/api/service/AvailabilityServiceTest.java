@@ -0,0 +1,122 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.availability.Granularity;
+import com.hostfully.booking.api.availability.OccupancyEncoding;
+import com.hostfully.booking.api.availability.OccupiedRange;
+import com.hostfully.booking.api.availability.PropertyCalendar;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    private static final UUID PROPERTY_UUID = UUID.fromString("c0f926fa-5d63-4d33-8476-74ce938d6bff");
+
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+
+    @InjectMocks
+    private AvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        var calendar = new PropertyCalendar();
+        calendar.put(OccupiedRange.of(1L, LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 5)));
+        calendar.put(OccupiedRange.of(2L, LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 2)));
+        lenient().when(availabilityIndex.calendarOf(PROPERTY_UUID)).thenReturn(calendar);
+        lenient().when(availabilityIndex.propertyUuids()).thenReturn(Set.of(PROPERTY_UUID));
+    }
+
+    @Test
+    void findOccupancyMatrixTest_DailyRunLengthEncoding() throws ParameterValidationException {
+        var matrix = service.findOccupancyMatrix(List.of(PROPERTY_UUID.toString()),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Granularity.DAY, OccupancyEncoding.RLE);
+
+        assertEquals(31, matrix.getDays());
+        var row = matrix.getProperties().get(0);
+        assertEquals(5, row.getOccupiedDays());
+        assertEquals(2, row.getRuns().size());
+        assertArrayEquals(new int[]{2, 3}, row.getRuns().get(0));
+        assertArrayEquals(new int[]{29, 2}, row.getRuns().get(1));
+        assertNull(row.getBitset());
+    }
+
+    @Test
+    void findOccupancyMatrixTest_DailyBitset() throws ParameterValidationException {
+        var matrix = service.findOccupancyMatrix(null,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 10), Granularity.DAY, OccupancyEncoding.BITSET);
+
+        var bits = BitSet.valueOf(Base64.getDecoder().decode(matrix.getProperties().get(0).getBitset()));
+        assertEquals(BitSet.valueOf(new long[]{0b11100}), bits);
+    }
+
+    @Test
+    void findOccupancyMatrixTest_MonthlyRollUp() throws ParameterValidationException {
+        var matrix = service.findOccupancyMatrix(null,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 10), Granularity.MONTH, OccupancyEncoding.RLE);
+
+        var buckets = matrix.getProperties().get(0).getBuckets();
+        assertEquals(2, buckets.size());
+        assertEquals(LocalDate.of(2024, 1, 15), buckets.get(0).getStart());
+        assertEquals(17, buckets.get(0).getDays());
+        assertEquals(2, buckets.get(0).getOccupiedDays());
+        assertEquals(LocalDate.of(2024, 2, 1), buckets.get(1).getStart());
+        assertEquals(10, buckets.get(1).getDays());
+        assertEquals(2, buckets.get(1).getOccupiedDays());
+        assertNull(matrix.getEncoding());
+    }
+
+    @Test
+    void findOccupancyMatrixTest_UnknownProperty_MustThrowObjectNotFoundException() {
+        var except = assertThrows(ObjectNotFoundException.class,
+                () -> service.findOccupancyMatrix(List.of("a50df57f-8554-4268-97c4-a0777f77317a"),
+                        LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Granularity.WEEK, OccupancyEncoding.RLE));
+        assertEquals("The Property was not found in the Database", except.getMessage());
+    }
+
+    @Test
+    void findOccupancyMatrixTest_WholePortfolioOverTheLimit_MustThrowParameterValidationException() {
+        when(availabilityIndex.propertyUuids()).thenReturn(Stream.generate(UUID::randomUUID).limit(101).collect(Collectors.toSet()));
+
+        var except = assertThrows(ParameterValidationException.class, () -> service.findOccupancyMatrix(null,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), Granularity.DAY, OccupancyEncoding.RLE));
+        assertEquals("The matrix must not have more than 100 properties, select them with the properties parameter", except.getMessage());
+    }
+
+    @Test
+    void findNextFreeWindowTest_TooManyNights_MustThrowParameterValidationException() {
+        var except = assertThrows(ParameterValidationException.class,
+                () -> service.findNextFreeWindow(PROPERTY_UUID.toString(), LocalDate.of(2024, 1, 1), Integer.MAX_VALUE));
+        assertEquals("The number of nights must not be greater than 365", except.getMessage());
+    }
+
+    @Test
+    void findNextFreeWindowTest_AfterBeyondTheHorizon_MustThrowParameterValidationException() {
+        var except = assertThrows(ParameterValidationException.class,
+                () -> service.findNextFreeWindow(PROPERTY_UUID.toString(), LocalDate.MAX, 3));
+        assertEquals("The after date must not be more than 1096 days ahead", except.getMessage());
+    }
+}
@@ -1,22 +1,25 @@
 package com.hostfully.booking.api.service;
 
+import com.hostfully.booking.api.cache.BookingResponseCache;
+import com.hostfully.booking.api.cache.CachedBooking;
 import com.hostfully.booking.api.entity.Booking;
 import com.hostfully.booking.api.entity.BookingStatus;
-import com.hostfully.booking.api.entity.Property;
 import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ObjectNotFoundException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
 import com.hostfully.booking.api.helper.BookingHelper;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.mapper.BookingMapper;
 import com.hostfully.booking.api.repository.BookingRepository;
 import com.hostfully.booking.api.resource.BookingRequestResource;
-import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.resource.ResponseFormat;
 import com.hostfully.booking.api.utils.ObjectMockUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDate;
 import java.util.Optional;
@@ -36,11 +39,15 @@ class BlockServiceTest {
     @Mock
     private BookingHelper helper;
     @Mock
-    private ModelMapper mapper;
+    private BookingMapper mapper;
     @Mock
     private BookingRepository repository;
+    @Spy
+    private PropertyLockManager lockManager = new PropertyLockManager(16, 1000);
     @Mock
     private PropertyService propertyService;
+    @Mock
+    private BookingResponseCache responseCache;
 
     @InjectMocks
     private BlockService service;
@@ -50,7 +57,7 @@ class BlockServiceTest {
     void createBlockTest_PropertyIdNotFound_MustThrowObjectNotFoundException() {
         var resourceMock = new BookingRequestResource();
         resourceMock.setPropertyId("c0f926fa-5d63-4d33-8476-74ce938d6bff");
-        when(propertyService.findByUUID(anyString())).thenReturn(Optional.empty());
+        when(propertyService.findEntity(anyString())).thenReturn(Optional.empty());
         var exception = assertThrows(ObjectNotFoundException.class, () ->
                 service.createBlock(resourceMock));
         assertNotNull(exception);
@@ -60,8 +67,8 @@ class BlockServiceTest {
     @Test
     void createBlockTest_HasOverlap_MustThrowBusinessException() throws BusinessException {
         var resourceMock = ObjectMockUtils.getBlockRequestResourceMockHappyPath();
-        when(propertyService.findByUUID("c0f926fa-5d63-4d33-8476-74ce938d6bff"))
-                .thenReturn(Optional.of(ObjectMockUtils.getBlockPropertyResourceMockHappyPath()));
+        when(propertyService.findEntity("c0f926fa-5d63-4d33-8476-74ce938d6bff"))
+                .thenReturn(Optional.of(ObjectMockUtils.getBlockPropertyMockHappyPath()));
         doThrow(new BusinessException("Error on saving Booking. The dates selected overlaps another existing booking"))
                 .when(helper)
                 .validateOverlappedDates(0L, UUID.fromString("c0f926fa-5d63-4d33-8476-74ce938d6bff"),
@@ -76,17 +83,15 @@ class BlockServiceTest {
 
     @Test
     void createBlockTest_HappyPath() throws BusinessException {
-        when(propertyService.findByUUID("c0f926fa-5d63-4d33-8476-74ce938d6bff"))
-                .thenReturn(Optional.of(ObjectMockUtils.getBlockPropertyResourceMockHappyPath()));
-        when(mapper.map(ObjectMockUtils.getBlockRequestResourceMockHappyPath(), Booking.class))
+        when(propertyService.findEntity("c0f926fa-5d63-4d33-8476-74ce938d6bff"))
+                .thenReturn(Optional.of(ObjectMockUtils.getBlockPropertyMockHappyPath()));
+        when(mapper.toEntity(ObjectMockUtils.getBlockRequestResourceMockHappyPath()))
                 .thenReturn(ObjectMockUtils.getBlockMockHappyPath());
-        when(mapper.map(ObjectMockUtils.getBlockPropertyResourceMockHappyPath(), Property.class))
-                .thenReturn(ObjectMockUtils.getBlockPropertyMockHappyPath());
         var beforeSave = ObjectMockUtils.getBlockMockHappyPath();
         beforeSave.setStatus(BookingStatus.BLOCKED);
         when(repository.save(beforeSave))
                 .thenReturn(ObjectMockUtils.getSavedBlockMockHappyPath());
-        when(mapper.map(ObjectMockUtils.getSavedBlockMockHappyPath(), BookingResponseResource.class))
+        when(mapper.toResource(ObjectMockUtils.getSavedBlockMockHappyPath()))
                 .thenReturn(ObjectMockUtils.getBlockResponseResourceMockHappyPath());
 
         var result = service.createBlock(ObjectMockUtils.getBlockRequestResourceMockHappyPath());
@@ -166,7 +171,7 @@ class BlockServiceTest {
         var expectedResource = ObjectMockUtils.getBlockResponseResourceMockHappyPath();
         expectedResource.setBeginAt(expectedEntity.getBeginAt());
         expectedResource.setEndAt(expectedEntity.getEndAt());
-        when(mapper.map(expectedEntity, BookingResponseResource.class)).thenReturn(expectedResource);
+        when(mapper.toResource(expectedEntity)).thenReturn(expectedResource);
 
         var updatedBooking = service.updateBlock("77497a01-57e0-41ca-b880-02963f9cc6a0", resource);
         assertNotNull(updatedBooking);
@@ -182,4 +187,19 @@ class BlockServiceTest {
         assertEquals(expectedEntity.getProperty().getUuid(), updatedBooking.getProperty().getUuid());
         assertEquals(expectedEntity.getProperty().getName(), updatedBooking.getProperty().getName());
     }
+
+    @Test
+    void findSerializedByUUIDTest_OnlyReturnsBlocks() throws ParameterValidationException {
+        var blockUuid = UUID.fromString("77497a01-57e0-41ca-b880-02963f9cc6a0");
+        var bookingUuid = UUID.fromString("55a6b2ea-7d44-40d3-8eb1-8967110d3df8");
+        var block = new CachedBooking(new byte[0], 0L, BookingStatus.BLOCKED);
+        when(helper.parseBookingUuid(blockUuid.toString())).thenReturn(blockUuid);
+        when(helper.parseBookingUuid(bookingUuid.toString())).thenReturn(bookingUuid);
+        when(responseCache.find(blockUuid, ResponseFormat.JSON)).thenReturn(Optional.of(block));
+        when(responseCache.find(bookingUuid, ResponseFormat.JSON)).thenReturn(Optional.of(new CachedBooking(new byte[0], 0L, BookingStatus.BOOKED)));
+        when(helper.isBlock(BookingStatus.BLOCKED)).thenReturn(true);
+
+        assertEquals(block, service.findSerializedByUUID(blockUuid.toString()));
+        assertThrows(ObjectNotFoundException.class, () -> service.findSerializedByUUID(bookingUuid.toString()));
+    }
 }
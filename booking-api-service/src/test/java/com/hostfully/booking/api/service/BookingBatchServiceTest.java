@@ -0,0 +1,158 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.availability.OccupiedRange;
+import com.hostfully.booking.api.availability.PropertyCalendar;
+import com.hostfully.booking.api.cache.PropertyCache;
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.Property;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.helper.BookingHelper;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import com.hostfully.booking.api.resource.DateRangeResource;
+import com.hostfully.booking.api.utils.ObjectMockUtils;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingBatchServiceTest {
+
+    private static final String PROPERTY_ID = "a50df57f-8554-4268-97c4-a0777f77317a";
+    private static final String OTHER_PROPERTY_ID = "da26c68e-b6c6-47a7-a546-3f47621f0abc";
+
+    @Mock
+    private BookingHelper helper;
+    @Mock
+    private BookingMapper mapper;
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private PropertyCache propertyCache;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private GuestService guestService;
+
+    private BookingBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingBatchService(helper, mapper, repository, propertyCache, availabilityIndex,
+                new PropertyLockManager(16, 1000), guestService, Validation.buildDefaultValidatorFactory().getValidator(), 3);
+    }
+
+    @Test
+    void createBlocksTest_EmptyOrTooLargeBatch_MustThrowParameterValidationException() {
+        var empty = List.<BookingRequestResource>of();
+        var tooLarge = List.of(request(PROPERTY_ID, 1, 2), request(PROPERTY_ID, 3, 4),
+                request(PROPERTY_ID, 5, 6), request(PROPERTY_ID, 7, 8));
+
+        assertEquals("The batch must have at least one item",
+                assertThrows(ParameterValidationException.class, () -> service.createBlocks(empty)).getMessage());
+        assertEquals("The batch must have at most 3 items",
+                assertThrows(ParameterValidationException.class, () -> service.createBlocks(tooLarge)).getMessage());
+    }
+
+    @Test
+    void createBlocksTest_ResultPerItem() throws Exception {
+        var stored = new PropertyCalendar();
+        stored.put(OccupiedRange.of(7L, day(20), day(25)));
+        when(availabilityIndex.readCalendar(10L, day(1), day(6))).thenReturn(stored);
+        when(propertyCache.findAll(anyCollection()))
+                .thenReturn(Map.of(UUID.fromString(PROPERTY_ID), ObjectMockUtils.getBookingPropertyMockHappyPath()));
+        when(mapper.toEntity(any(BookingRequestResource.class))).thenAnswer(invocation -> new Booking());
+        when(repository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.<List<Booking>>getArgument(0)));
+
+        var invalid = request(PROPERTY_ID, 1, 2);
+        invalid.setGuests(null);
+        var result = service.createBlocks(List.of(
+                request(PROPERTY_ID, 1, 5),
+                request(PROPERTY_ID, 5, 6),
+                invalid));
+
+        assertEquals(1, result.getCreatedCount());
+        assertEquals(2, result.getRejectedCount());
+        assertEquals(201, result.getResults().get(0).getStatusCode());
+        assertEquals(409, result.getResults().get(1).getStatusCode());
+        assertEquals(List.of(new DateRangeResource(day(1), day(5))), result.getResults().get(1).getConflicts());
+        assertEquals(400, result.getResults().get(2).getStatusCode());
+        assertEquals(List.of("The Guest list must not be NULL or EMPTY"), result.getResults().get(2).getErrorMessages());
+    }
+
+    @Test
+    void createBookingsTest_StoredOverlapAndUnknownProperty() throws Exception {
+        var stored = new PropertyCalendar();
+        stored.put(OccupiedRange.of(7L, day(20), day(25)));
+        when(availabilityIndex.readCalendar(10L, day(25), day(26))).thenReturn(stored);
+        when(propertyCache.findAll(anyCollection()))
+                .thenReturn(Map.of(UUID.fromString(PROPERTY_ID), ObjectMockUtils.getBookingPropertyMockHappyPath()));
+        when(repository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.<List<Booking>>getArgument(0)));
+
+        var result = service.createBookings(List.of(
+                request(PROPERTY_ID, 25, 26),
+                request("da26c68e-b6c6-47a7-a546-3f47621f0abc", 1, 2)));
+
+        assertEquals(0, result.getCreatedCount());
+        assertEquals(409, result.getResults().get(0).getStatusCode());
+        assertEquals(List.of(new DateRangeResource(day(20), day(25))), result.getResults().get(0).getConflicts());
+        assertEquals(404, result.getResults().get(1).getStatusCode());
+    }
+
+    @Test
+    void createBookingsTest_FailedGroup_OnlyFailsItsItems() throws Exception {
+        var other = new Property();
+        other.setId(11L);
+        other.setUuid(UUID.fromString(OTHER_PROPERTY_ID));
+        when(availabilityIndex.readCalendar(any(), any(), any())).thenAnswer(invocation -> new PropertyCalendar());
+        when(propertyCache.findAll(anyCollection())).thenReturn(Map.of(
+                UUID.fromString(PROPERTY_ID), ObjectMockUtils.getBookingPropertyMockHappyPath(),
+                other.getUuid(), other));
+        when(mapper.toEntity(any(BookingRequestResource.class))).thenAnswer(invocation -> new Booking());
+        when(repository.saveAll(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<List<Booking>>getArgument(0)))
+                .thenThrow(new DataIntegrityViolationException("FK_PROPERTY"));
+
+        var result = service.createBookings(List.of(
+                request(PROPERTY_ID, 1, 2),
+                request(OTHER_PROPERTY_ID, 1, 2),
+                request(OTHER_PROPERTY_ID, 3, 4)));
+
+        // The first group was committed before the second one failed
+        assertEquals(1, result.getCreatedCount());
+        assertEquals(201, result.getResults().get(0).getStatusCode());
+        assertEquals(500, result.getResults().get(1).getStatusCode());
+        assertEquals(500, result.getResults().get(2).getStatusCode());
+    }
+
+    private static LocalDate day(int days) {
+        return LocalDate.now().plusDays(days);
+    }
+
+    private static BookingRequestResource request(String propertyId, int beginDays, int endDays) {
+        var resource = ObjectMockUtils.getBookingRequestResourceMockHappyPath();
+        resource.setPropertyId(propertyId);
+        resource.setBeginAt(day(beginDays));
+        resource.setEndAt(day(endDays));
+        return resource;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hostfully.booking.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.BookingExportProjection;
+import com.hostfully.booking.api.repository.projection.GuestExportProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExportServiceTest {
+
+    private static final UUID PROPERTY_UUID = UUID.fromString("a50df57f-8554-4268-97c4-a0777f77317a");
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    private BookingExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingExportService(repository, propertyRepository, new ObjectMapper().findAndRegisterModules(), 2);
+    }
+
+    @Test
+    void exportBookingsTest_FetchesGuestsOncePerChunk() throws Exception {
+        var criteria = new BookingExportService.Criteria(5L, PROPERTY_UUID, null, null);
+        when(repository.streamForExport(5L, null, null)).thenReturn(Stream.of(row(1L), row(2L), row(3L)));
+        when(repository.findGuestsByBookingIds(List.of(1L, 2L))).thenReturn(List.of(guest(1L, "A"), guest(1L, "B")));
+        when(repository.findGuestsByBookingIds(List.of(3L))).thenReturn(List.of(guest(3L, "C")));
+
+        var output = new ByteArrayOutputStream();
+        var exported = service.exportBookings(criteria, output);
+
+        assertEquals(3, exported);
+        var lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"guests\":[{\"name\":\"A\",\"age\":30,\"documentType\":\"PASSPORT\"},"
+                + "{\"name\":\"B\",\"age\":30,\"documentType\":\"PASSPORT\"}]"));
+        assertTrue(lines.get(1).endsWith("\"guests\":[]}"));
+        assertTrue(lines.get(2).contains("\"propertyId\":\"" + PROPERTY_UUID + "\",\"status\":\"BOOKED\""));
+        verify(repository).findGuestsByBookingIds(List.of(3L));
+    }
+
+    @Test
+    void prepareExportTest_InvalidParameters() {
+        when(propertyRepository.findByUuid(any())).thenReturn(Optional.empty());
+
+        assertThrows(ParameterValidationException.class, () -> service.prepareExport(null, null, null));
+        assertThrows(ParameterValidationException.class, () -> service.prepareExport("invalid", null, null));
+        assertThrows(ParameterValidationException.class,
+                () -> service.prepareExport(PROPERTY_UUID.toString(), DAY.plusDays(1), DAY));
+        assertThrows(ObjectNotFoundException.class, () -> service.prepareExport(PROPERTY_UUID.toString(), DAY, DAY));
+    }
+
+    private static BookingExportProjection row(Long id) {
+        return new BookingExportProjection() {
+            public Long getId() { return id; }
+            public UUID getUuid() { return new UUID(0L, id); }
+            public UUID getPropertyUuid() { return PROPERTY_UUID; }
+            public BookingStatus getStatus() { return BookingStatus.BOOKED; }
+            public LocalDate getBeginAt() { return DAY.plusDays(id); }
+            public LocalDate getEndAt() { return DAY.plusDays(id); }
+        };
+    }
+
+    private static GuestExportProjection guest(Long bookingId, String name) {
+        return new GuestExportProjection() {
+            public Long getBookingId() { return bookingId; }
+            public String getName() { return name; }
+            public Integer getAge() { return 30; }
+            public String getEmail() { return null; }
+            public DocumentType getDocumentType() { return DocumentType.PASSPORT; }
+            public String getDocumentNumber() { return null; }
+        };
+    }
+}
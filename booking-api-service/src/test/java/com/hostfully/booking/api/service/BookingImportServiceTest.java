@@ -0,0 +1,77 @@
+package com.hostfully.booking.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.resource.BatchItemResultResource;
+import com.hostfully.booking.api.resource.BatchResultResource;
+import com.hostfully.booking.api.resource.BookingRequestResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingImportServiceTest {
+
+    private static final String LINE =
+            "{\"propertyId\":\"a50df57f-8554-4268-97c4-a0777f77317a\",\"beginAt\":\"2020-01-01\",\"endAt\":\"2020-01-02\"}";
+
+    @Mock
+    private BookingBatchService batchService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void importBlocksTest_ChunksAndReportsPerLine() throws Exception {
+        var service = new BookingImportService(batchService, objectMapper, 2, 200);
+        when(batchService.importChunk(anyList(), eq(BookingStatus.BLOCKED))).thenAnswer(invocation -> {
+            List<BookingRequestResource> chunk = invocation.getArgument(0);
+            var result = new BatchResultResource();
+            result.setResults(IntStream.range(0, chunk.size())
+                    .mapToObj(i -> item(i, i == 1 ? 409 : 201))
+                    .toList());
+            return result;
+        });
+
+        var input = String.join("\n", LINE, "{not json", LINE, "", LINE, "x".repeat(300), LINE) + "\n";
+        var output = new ByteArrayOutputStream();
+        var summary = service.importBlocks(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        verify(batchService, times(3)).importChunk(anyList(), eq(BookingStatus.BLOCKED));
+        assertEquals(6, summary.getProcessed());
+        assertEquals(3, summary.getCreated());
+        assertEquals(3, summary.getRejected());
+
+        var records = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(7, records.size());
+        assertTrue(records.get(0).startsWith("{\"type\":\"ERROR\",\"line\":2,\"statusCode\":400"));
+        assertEquals("{\"type\":\"PROGRESS\",\"processed\":2,\"created\":1,\"rejected\":1}", records.get(1));
+        assertTrue(records.get(2).startsWith("{\"type\":\"ERROR\",\"line\":5,\"statusCode\":409"));
+        assertTrue(records.get(4).startsWith("{\"type\":\"ERROR\",\"line\":6,\"statusCode\":400"));
+        assertEquals("{\"type\":\"SUMMARY\",\"processed\":6,\"created\":3,\"rejected\":3}", records.get(6));
+    }
+
+    private static BatchItemResultResource item(int index, int statusCode) {
+        var item = new BatchItemResultResource();
+        item.setIndex(index);
+        item.setStatusCode(statusCode);
+        if (statusCode != 201) {
+            item.setErrorMessages(List.of("Error on saving Booking. The dates selected overlaps another existing booking"));
+        }
+        return item;
+    }
+}
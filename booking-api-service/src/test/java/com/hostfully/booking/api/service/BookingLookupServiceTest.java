@@ -0,0 +1,71 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLookupServiceTest {
+
+    private static final UUID FIRST = new UUID(0L, 1L);
+    private static final UUID SECOND = new UUID(0L, 2L);
+    private static final UUID THIRD = new UUID(0L, 3L);
+
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private BookingMapper mapper;
+
+    private BookingLookupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookingLookupService(repository, mapper, 5, 2);
+    }
+
+    @Test
+    void findByUUIDsTest_ChunkedQueriesAndResultPerItem() throws Exception {
+        when(repository.findDetailedByUuidIn(List.of(THIRD, FIRST))).thenReturn(List.of(booking(FIRST), booking(THIRD)));
+        when(repository.findDetailedByUuidIn(List.of(SECOND))).thenReturn(List.of());
+        when(mapper.toResource(any(Booking.class))).thenAnswer(invocation -> {
+            var resource = new BookingResponseResource();
+            resource.setUuid(invocation.<Booking>getArgument(0).getUuid().toString());
+            return resource;
+        });
+
+        var result = service.findByUUIDs(List.of(THIRD.toString(), "invalid", FIRST.toString(), SECOND.toString(), THIRD.toString()));
+
+        assertEquals(3, result.getFoundCount());
+        assertEquals(2, result.getMissingCount());
+        assertEquals(List.of(200, 400, 200, 404, 200), result.getResults().stream().map(item -> item.getStatusCode()).toList());
+        assertEquals(THIRD.toString(), result.getResults().get(4).getBooking().getUuid());
+        assertEquals(List.of("The Booking was not found in the Database"), result.getResults().get(3).getErrorMessages());
+    }
+
+    @Test
+    void findByUUIDsTest_EmptyOrTooLarge_MustThrowParameterValidationException() {
+        assertThrows(ParameterValidationException.class, () -> service.findByUUIDs(List.of()));
+        assertThrows(ParameterValidationException.class, () -> service.findByUUIDs(List.of("a", "b", "c", "d", "e", "f")));
+    }
+
+    private static Booking booking(UUID uuid) {
+        var booking = new Booking();
+        booking.setUuid(uuid);
+        return booking;
+    }
+}
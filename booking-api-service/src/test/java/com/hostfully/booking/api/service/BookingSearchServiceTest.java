@@ -0,0 +1,111 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.mapper.BookingMapper;
+import com.hostfully.booking.api.repository.BookingSearchRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.resource.BookingResponseResource;
+import com.hostfully.booking.api.utils.ObjectMockUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSearchServiceTest {
+
+    @Mock
+    private BookingSearchRepository repository;
+    @Mock
+    private PropertyRepository propertyRepository;
+    @Mock
+    private BookingMapper mapper;
+
+    @InjectMocks
+    private BookingSearchService service;
+
+    @Test
+    void findBookingsTest_NextCursorPointsAfterTheLastItem() throws Exception {
+        var property = ObjectMockUtils.getBookingPropertyMockHappyPath();
+        when(propertyRepository.findByUuid(property.getUuid())).thenReturn(Optional.of(property));
+        when(mapper.toResource(any(Booking.class))).thenReturn(new BookingResponseResource());
+        var cursor = BookingSearchService.encodeCursor(booking(7L, LocalDate.of(2030, 1, 1)));
+        var expected = new BookingSearchRepository.Criteria(property.getId(), BookingStatus.BLOCKED, null, null,
+                LocalDate.of(2030, 1, 1), 7L);
+        when(repository.findPage(expected, 3, BookingSearchRepository.Associations.ALL)).thenReturn(List.of(
+                booking(8L, LocalDate.of(2030, 1, 1)), booking(3L, LocalDate.of(2030, 1, 2)), booking(9L, LocalDate.of(2030, 1, 2))));
+
+        var page = service.findBookings(property.getUuid().toString(), null, null, "blocked", cursor, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(new BookingSearchService.Cursor(LocalDate.of(2030, 1, 2), 3L),
+                BookingSearchService.decodeCursor(page.getNextCursor()));
+    }
+
+    @Test
+    void findBookingsTest_LastPage_HasNoCursor() throws Exception {
+        when(repository.findPage(any(), eq(51), eq(BookingSearchRepository.Associations.ALL))).thenReturn(List.of());
+
+        var page = service.findBookings(null, null, null, null, null, null);
+
+        assertEquals(0, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findBookingsTest_WithFields_SkipsTheAssociationsNotRequested() throws Exception {
+        var booking = booking(4L, LocalDate.of(2030, 1, 1));
+        booking.setUuid(UUID.randomUUID());
+        booking.setStatus(BookingStatus.BOOKED);
+        booking.setEndAt(LocalDate.of(2030, 1, 3));
+        when(repository.findPage(any(), eq(51), eq(new BookingSearchRepository.Associations(false, false))))
+                .thenReturn(List.of(booking));
+
+        var page = service.findBookings(null, null, null, null, null, null, "status, beginAt");
+
+        var item = page.getItems().get(0);
+        assertEquals(booking.getUuid().toString(), item.getUuid());
+        assertEquals("BOOKED", item.getStatus());
+        assertEquals(booking.getBeginAt(), item.getBeginAt());
+        assertNull(item.getEndAt());
+        assertNull(item.getProperty());
+        assertNull(item.getGuests());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void findBookingsTest_InvalidParameters_MustThrowParameterValidationException() {
+        var day = LocalDate.of(2030, 1, 1);
+
+        assertThrows(ParameterValidationException.class, () -> service.findBookings(null, null, null, null, null, 0));
+        assertThrows(ParameterValidationException.class, () -> service.findBookings(null, null, null, null, null, 501));
+        assertThrows(ParameterValidationException.class, () -> service.findBookings(null, day, day.minusDays(1), null, null, null));
+        assertThrows(ParameterValidationException.class, () -> service.findBookings(null, null, null, "UNKNOWN", null, null));
+        assertThrows(ParameterValidationException.class, () -> service.findBookings(null, null, null, null, "not-a-cursor", null));
+        assertThrows(ParameterValidationException.class, () -> service.findBookings("invalid", null, null, null, null, null));
+        assertThrows(ParameterValidationException.class, () -> service.findBookings(null, null, null, null, null, null, "uuid,price"));
+    }
+
+    private static Booking booking(Long id, LocalDate beginAt) {
+        var booking = new Booking();
+        booking.setId(id);
+        booking.setBeginAt(beginAt);
+        return booking;
+    }
+}
@@ -3,26 +3,29 @@ package com.hostfully.booking.api.service;
 import com.hostfully.booking.api.entity.Booking;
 import com.hostfully.booking.api.entity.BookingStatus;
 import com.hostfully.booking.api.entity.Guest;
-import com.hostfully.booking.api.entity.Property;
 import com.hostfully.booking.api.exception.BusinessException;
 import com.hostfully.booking.api.exception.ObjectNotFoundException;
 import com.hostfully.booking.api.exception.ParameterValidationException;
 import com.hostfully.booking.api.helper.BookingHelper;
+import com.hostfully.booking.api.lock.PropertyLockManager;
+import com.hostfully.booking.api.mapper.BookingMapper;
 import com.hostfully.booking.api.repository.BookingRepository;
 import com.hostfully.booking.api.resource.BookingRequestResource;
-import com.hostfully.booking.api.resource.BookingResponseResource;
 import com.hostfully.booking.api.resource.GuestResource;
 import com.hostfully.booking.api.utils.ObjectMockUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,11 +45,17 @@ class BookingServiceTest {
     private BookingHelper helper;
 
     @Mock
-    private ModelMapper mapper;
+    private BookingMapper mapper;
 
     @Mock
     private BookingRepository repository;
 
+    @Spy
+    private PropertyLockManager lockManager = new PropertyLockManager(16, 1000);
+
+    @Mock
+    private EntityManager entityManager;
+
     @Mock
     private PropertyService propertyService;
 
@@ -59,7 +69,7 @@ class BookingServiceTest {
     void createBookingTest_PropertyIdNotFound_MustThrowObjectNotFoundException() {
         var resourceMock = new BookingRequestResource();
         resourceMock.setPropertyId("55a6b2ea-7d44-40d3-8eb1-8967110d3df8");
-        when(propertyService.findByUUID(anyString())).thenReturn(Optional.empty());
+        when(propertyService.findEntity(anyString())).thenReturn(Optional.empty());
         var exception = assertThrows(ObjectNotFoundException.class, () ->
                 service.createBooking(resourceMock));
         assertNotNull(exception);
@@ -69,8 +79,8 @@ class BookingServiceTest {
     @Test
     void createBookingTest_HasOverlap_MustThrowBusinessException() throws BusinessException {
         var resourceMock = ObjectMockUtils.getBookingRequestResourceMockHappyPath();
-        when(propertyService.findByUUID("a50df57f-8554-4268-97c4-a0777f77317a"))
-                .thenReturn(Optional.of(ObjectMockUtils.getBookingPropertyResourceMockHappyPath()));
+        when(propertyService.findEntity("a50df57f-8554-4268-97c4-a0777f77317a"))
+                .thenReturn(Optional.of(ObjectMockUtils.getBookingPropertyMockHappyPath()));
         doThrow(new BusinessException("Error on saving Booking. The dates selected overlaps another existing booking"))
                 .when(helper)
                 .validateOverlappedDates(0L, UUID.fromString("a50df57f-8554-4268-97c4-a0777f77317a"),
@@ -85,17 +95,15 @@ class BookingServiceTest {
 
     @Test
     void createBookingTest_HappyPath() throws BusinessException {
-        when(propertyService.findByUUID("a50df57f-8554-4268-97c4-a0777f77317a"))
-                .thenReturn(Optional.of(ObjectMockUtils.getBookingPropertyResourceMockHappyPath()));
-        when(mapper.map(ObjectMockUtils.getBookingRequestResourceMockHappyPath(), Booking.class))
+        when(propertyService.findEntity("a50df57f-8554-4268-97c4-a0777f77317a"))
+                .thenReturn(Optional.of(ObjectMockUtils.getBookingPropertyMockHappyPath()));
+        when(mapper.toEntity(ObjectMockUtils.getBookingRequestResourceMockHappyPath()))
                 .thenReturn(ObjectMockUtils.getBookingMockHappyPath());
-        when(mapper.map(ObjectMockUtils.getBookingPropertyResourceMockHappyPath(), Property.class))
-                .thenReturn(ObjectMockUtils.getBookingPropertyMockHappyPath());
         var beforeSave = ObjectMockUtils.getBookingMockHappyPath();
         beforeSave.setStatus(BookingStatus.BOOKED);
         when(repository.save(beforeSave))
                 .thenReturn(ObjectMockUtils.getSavedBookingMockHappyPath());
-        when(mapper.map(ObjectMockUtils.getSavedBookingMockHappyPath(), BookingResponseResource.class))
+        when(mapper.toResource(ObjectMockUtils.getSavedBookingMockHappyPath()))
                 .thenReturn(ObjectMockUtils.getBookingResponseResourceMockHappyPath());
 
         var result = service.createBooking(ObjectMockUtils.getBookingRequestResourceMockHappyPath());
@@ -181,14 +189,14 @@ class BookingServiceTest {
         expectedEntity.setBeginAt(resource.getBeginAt());
         expectedEntity.setEndAt(resource.getEndAt());
         expectedEntity.setGuests(List.of(expectedUpdatedGuest));
-        when(helper.mergeEntityToUpdate(resource, entity)).thenReturn(expectedEntity);
-        when(repository.save(expectedEntity)).thenReturn(expectedEntity);
+        when(helper.mergeEntityToUpdate(resource, entity, Set.of())).thenReturn(expectedEntity);
+        when(repository.saveAndFlush(expectedEntity)).thenReturn(expectedEntity);
 
         var expectedResource = ObjectMockUtils.getBookingResponseResourceMockHappyPath();
         expectedResource.setBeginAt(expectedEntity.getBeginAt());
         expectedResource.setEndAt(expectedEntity.getEndAt());
         expectedResource.setGuests(List.of(updatedGuest));
-        when(mapper.map(expectedEntity, BookingResponseResource.class)).thenReturn(expectedResource);
+        when(mapper.toResource(expectedEntity)).thenReturn(expectedResource);
 
         var updatedBooking = service.updateBooking("55a6b2ea-7d44-40d3-8eb1-8967110d3df8", resource);
         assertNotNull(updatedBooking);
@@ -211,6 +219,8 @@ class BookingServiceTest {
         assertEquals(expectedEntity.getGuests().get(0).getAge(), updatedBooking.getGuests().get(0).getAge());
         assertNull(updatedBooking.getGuests().get(0).getDocumentType());
         assertNull(updatedBooking.getGuests().get(0).getDocumentNumber());
+        verify(entityManager).lock(expectedEntity, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        verify(guestService).deleteOrphans(List.of(100L, 200L));
     }
 
     @Test
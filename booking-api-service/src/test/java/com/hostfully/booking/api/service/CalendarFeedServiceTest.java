@@ -0,0 +1,102 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.availability.AvailabilityIndex;
+import com.hostfully.booking.api.entity.BookingStatus;
+import com.hostfully.booking.api.event.BookingChangedEvent;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.BookingExportProjection;
+import com.hostfully.booking.api.utils.ObjectMockUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarFeedServiceTest {
+
+    @Mock
+    private BookingRepository repository;
+    @Mock
+    private PropertyRepository propertyRepository;
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    private CalendarFeedService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CalendarFeedService(repository, propertyRepository, meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void findFeedTest_RendersOnceUntilThePropertyChanges() throws Exception {
+        var property = ObjectMockUtils.getBookingPropertyMockHappyPath();
+        var uuid = property.getUuid().toString();
+        when(propertyRepository.findByUuid(property.getUuid())).thenReturn(Optional.of(property));
+        when(repository.findCalendarEntries(property.getId(), AvailabilityIndex.OCCUPYING_STATUSES))
+                .thenReturn(List.of(entry(BookingStatus.BLOCKED, LocalDate.of(2030, 1, 30), LocalDate.of(2030, 1, 31))));
+
+        var feed = service.findFeed(uuid);
+        assertSame(feed, service.findFeed(uuid));
+
+        var ics = new String(feed.content(), StandardCharsets.UTF_8);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.contains("DTSTART;VALUE=DATE:20300130\r\nDTEND;VALUE=DATE:20300201\r\nSUMMARY:Blocked\r\n"));
+        assertTrue(ics.endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n"));
+
+        service.onBookingChanged(new BookingChangedEvent(1L, UUID.randomUUID(), UUID.randomUUID(),
+                BookingStatus.BOOKED, LocalDate.now(), LocalDate.now(), false));
+        assertSame(feed, service.findFeed(uuid));
+
+        service.onBookingChanged(new BookingChangedEvent(1L, UUID.randomUUID(), property.getUuid(),
+                BookingStatus.BOOKED, LocalDate.now(), LocalDate.now(), false));
+        var rendered = service.findFeed(uuid);
+        assertNotSame(feed, rendered);
+        verify(repository, times(2)).findCalendarEntries(any(), any());
+        // The events did not change, so the validator is the same whenever and wherever the feed is rendered
+        assertEquals(feed.eTag(), rendered.eTag());
+    }
+
+    @Test
+    void findFeedTest_InvalidOrUnknownProperty() {
+        when(propertyRepository.findByUuid(any())).thenReturn(Optional.empty());
+
+        assertThrows(ParameterValidationException.class, () -> service.findFeed("invalid"));
+        assertThrows(ObjectNotFoundException.class, () -> service.findFeed(UUID.randomUUID().toString()));
+    }
+
+    private static BookingExportProjection entry(BookingStatus status, LocalDate beginAt, LocalDate endAt) {
+        var uuid = UUID.randomUUID();
+        return new BookingExportProjection() {
+            public Long getId() { return 1L; }
+            public UUID getUuid() { return uuid; }
+            public UUID getPropertyUuid() { return null; }
+            public BookingStatus getStatus() { return status; }
+            public LocalDate getBeginAt() { return beginAt; }
+            public LocalDate getEndAt() { return endAt; }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.entity.Booking;
+import com.hostfully.booking.api.entity.DocumentType;
+import com.hostfully.booking.api.entity.Guest;
+import com.hostfully.booking.api.event.GuestsChangedEvent;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.mapper.GuestMapper;
+import com.hostfully.booking.api.repository.BookingRepository;
+import com.hostfully.booking.api.repository.GuestRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GuestServiceTest {
+
+    @Mock
+    private GuestMapper mapper;
+    @Mock
+    private GuestRepository repository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private GuestService service;
+
+    @Test
+    void linkExistingGuestsTest_OnlyTheFullIdentityIsLinked() {
+        var stored = guest(7L, "Stored Guest", "stored@guest.com", "XX1");
+        var same = guest(null, "Stored Guest", "stored@guest.com", "XX1");
+        var sameDocument = guest(null, "Another Name", "stored@guest.com", "XX1");
+        var sameEmail = guest(null, "Stored Guest", "stored@guest.com", null);
+        var repeated = guest(null, "Stored Guest", "stored@guest.com", "XX1");
+        var booking = booking(same, sameDocument, sameEmail, repeated);
+        when(repository.findByDocuments(Set.of(DocumentType.PASSPORT), Set.of("XX1"))).thenReturn(List.of(stored));
+        when(repository.findByNormalizedEmails(Set.of("stored@guest.com"))).thenReturn(List.of(stored));
+
+        service.linkExistingGuests(List.of(booking));
+        // A matching document or email alone inserts a new guest, and the stored one is linked only once
+        assertEquals(3, booking.getGuests().size());
+        assertSame(stored, booking.getGuests().get(0));
+        assertSame(sameDocument, booking.getGuests().get(1));
+        assertSame(sameEmail, booking.getGuests().get(2));
+    }
+
+    @Test
+    void linkExistingGuestsTest_NewGuestRepeatedAcrossBookings_BecomesOneGuest() {
+        var first = booking(guest(null, "New Guest", "new@guest.com", null));
+        var second = booking(guest(null, "New Guest", "new@guest.com", null));
+        var other = booking(guest(null, "new guest", "NEW@guest.com", null));
+        when(repository.findByNormalizedEmails(Set.of("new@guest.com"))).thenReturn(List.of());
+
+        service.linkExistingGuests(List.of(first, second, other));
+        assertSame(first.getGuests().get(0), second.getGuests().get(0));
+        assertNotSame(first.getGuests().get(0), other.getGuests().get(0));
+    }
+
+    @Test
+    void lockSharedTest_LocksTheGuestsBeforeReadingTheSharedOnes() {
+        var booking = booking(guest(10L, "First", null, "XX1"), guest(20L, "Second", null, "XX2"), guest(null, "New", null, null));
+        booking.setId(1L);
+        when(repository.findIdsSharedWithOtherBookings(1L, List.of(10L, 20L))).thenReturn(List.of(20L));
+
+        assertEquals(Set.of(20L), service.lockShared(booking));
+        var order = inOrder(repository);
+        order.verify(repository).lockByIdIn(List.of(10L, 20L));
+        order.verify(repository).findIdsSharedWithOtherBookings(1L, List.of(10L, 20L));
+    }
+
+    @Test
+    void deleteOrphansTest_LocksTheGuestsBeforeDeleting() {
+        service.deleteOrphans(List.of(10L));
+        var order = inOrder(repository);
+        order.verify(repository).lockByIdIn(List.of(10L));
+        order.verify(repository).deleteOrphansByIdIn(List.of(10L));
+    }
+
+    @Test
+    void linkExistingGuestsTest_OnlyStoredGuests_MustNotQuery() {
+        service.linkExistingGuests(List.of(booking(guest(1L, "Stored", null, "XX1"))));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void publishSharedChangesTest() {
+        var shared = List.of(UUID.randomUUID());
+        when(bookingRepository.findUuidsSharingGuests(1L, List.of(10L))).thenReturn(shared);
+
+        service.publishSharedChanges(1L, List.of(10L));
+        verify(eventPublisher).publishEvent(new GuestsChangedEvent(shared));
+
+        service.publishSharedChanges(1L, List.of());
+        service.deleteOrphans(List.of());
+        verify(repository, never()).lockByIdIn(any());
+        verify(repository, never()).deleteOrphansByIdIn(any());
+    }
+
+    @Test
+    void searchGuestsTest_InvalidCriteria_MustThrowParameterValidationException() {
+        assertEquals("Search the guests by document, by email or by name, only one of them",
+                assertThrows(ParameterValidationException.class,
+                        () -> service.searchGuests(null, null, "a@b.com", "name", null, null)).getMessage());
+        assertEquals("The name prefix must have at least 2 characters",
+                assertThrows(ParameterValidationException.class,
+                        () -> service.searchGuests(null, null, null, " á ", null, null)).getMessage());
+        assertEquals("The document type and number must be informed together",
+                assertThrows(ParameterValidationException.class,
+                        () -> service.searchGuests(null, "XX1", null, null, null, null)).getMessage());
+        assertEquals("The document type is not valid",
+                assertThrows(ParameterValidationException.class,
+                        () -> service.searchGuests("DRIVER", "XX1", null, null, null, null)).getMessage());
+        assertEquals("The limit must be between 1 and 500",
+                assertThrows(ParameterValidationException.class,
+                        () -> service.searchGuests(null, null, "a@b.com", null, null, 0)).getMessage());
+        assertEquals("The cursor is not valid",
+                assertThrows(ParameterValidationException.class,
+                        () -> service.searchGuests(null, null, "a@b.com", null, "invalid", null)).getMessage());
+    }
+
+    @Test
+    void cursorAndRangeTest() throws ParameterValidationException {
+        var position = new GuestService.Position("joão: da silva", 42L);
+        assertEquals(position, GuestService.decodeCursor(GuestService.encodeCursor(position)));
+        assertEquals(Optional.of("jp"), GuestService.upperBound("jo"));
+        assertEquals(Optional.of("k"), GuestService.upperBound("j\uffff\uffff"));
+        assertEquals(Optional.empty(), GuestService.upperBound("\uffff\uffff"));
+        assertEquals("joao da silva", Guest.normalize("  João   DA Silva "));
+    }
+
+    private static Guest guest(Long id, String name, String email, String documentNumber) {
+        var guest = new Guest();
+        guest.setId(id);
+        guest.setName(name);
+        guest.setEmail(email);
+        if (documentNumber != null) {
+            guest.setDocumentType(DocumentType.PASSPORT);
+            guest.setDocumentNumber(documentNumber);
+        }
+        return guest;
+    }
+
+    private static Booking booking(Guest... guests) {
+        var booking = new Booking();
+        booking.setGuests(new ArrayList<>(List.of(guests)));
+        return booking;
+    }
+}
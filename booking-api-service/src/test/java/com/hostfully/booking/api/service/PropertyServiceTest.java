@@ -0,0 +1,73 @@
+package com.hostfully.booking.api.service;
+
+import com.hostfully.booking.api.cache.PropertyCache;
+import com.hostfully.booking.api.exception.ObjectNotFoundException;
+import com.hostfully.booking.api.exception.ParameterValidationException;
+import com.hostfully.booking.api.mapper.PropertyMapper;
+import com.hostfully.booking.api.repository.PropertyRepository;
+import com.hostfully.booking.api.repository.projection.PropertyProjection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyServiceTest {
+
+    @Mock
+    private PropertyMapper mapper;
+    @Mock
+    private PropertyRepository repository;
+    @Mock
+    private PropertyCache propertyCache;
+
+    @InjectMocks
+    private PropertyService service;
+
+    @Test
+    void findPropertiesTest_PagesByIdWithoutMapper() throws Exception {
+        when(repository.findPageAfter(0L, PageRequest.ofSize(3))).thenReturn(List.of(property(1L), property(2L), property(3L)));
+        when(repository.findPageAfter(2L, PageRequest.ofSize(3))).thenReturn(List.of(property(3L)));
+
+        var first = service.findProperties(null, 2);
+        var second = service.findProperties(first.getNextCursor(), 2);
+
+        assertEquals(List.of("Property 1", "Property 2"), first.getItems().stream().map(p -> p.getName()).toList());
+        assertEquals(List.of("Property 3"), second.getItems().stream().map(p -> p.getName()).toList());
+        assertNull(second.getNextCursor());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void findPropertyTest_InvalidOrUnknownUuid() {
+        when(repository.findProjectionByUuid(any())).thenReturn(Optional.empty());
+
+        assertThrows(ParameterValidationException.class, () -> service.findProperty("invalid"));
+        assertThrows(ObjectNotFoundException.class, () -> service.findProperty(UUID.randomUUID().toString()));
+        assertThrows(ParameterValidationException.class, () -> service.findProperties("%%", null));
+        assertThrows(ParameterValidationException.class, () -> service.findProperties(null, 0));
+    }
+
+    private static PropertyProjection property(Long id) {
+        var uuid = new UUID(0L, id);
+        return new PropertyProjection() {
+            public Long getId() { return id; }
+            public UUID getUuid() { return uuid; }
+            public String getName() { return "Property " + id; }
+            public String getDescription() { return null; }
+        };
+    }
+}